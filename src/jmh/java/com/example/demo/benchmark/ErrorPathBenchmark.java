@@ -0,0 +1,97 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.exception.CustomException;
+import com.example.demo.exception.UserNotFoundException;
+import com.example.demo.exception_handler.ErrorResponse;
+import com.example.demo.exception_handler.ErrorResponseWriter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Пропускная способность пути 404 от броска исключения до байтов тела, без HTTP.
+// depth — глубина стека в момент броска: под Tomcat, фильтрами Spring Security и прокси сервиса это 100+ кадров.
+// stackTraceJackson — прежний путь: исключение со стеком, ErrorResponse и рефлексивный Jackson;
+// stacklessTemplate — текущий: UserNotFoundException без стека и шаблон ErrorResponseWriter
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ErrorPathBenchmark {
+
+    @Param({"16", "128"})
+    public int depth;
+
+    private ObjectMapper objectMapper;
+    private ErrorResponseWriter errorResponseWriter;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                // Как в Spring Boot: даты строками ISO-8601
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        errorResponseWriter = new ErrorResponseWriter();
+    }
+
+    @Benchmark
+    public byte[] stackTraceJackson() throws JsonProcessingException {
+        long id = ThreadLocalRandom.current().nextLong(1_000_000);
+        try {
+            return throwAt(depth, () -> new StackTraceUserNotFoundException("User not found with id: " + id));
+        } catch (CustomException e) {
+            ErrorResponse errorResponse = ErrorResponse.builder()
+                    .timestamp(LocalDateTime.now())
+                    .status(HttpStatus.NOT_FOUND.value())
+                    .error(e.getErrorCode())
+                    .message(e.getMessage())
+                    .path("/api/users/" + id)
+                    .build();
+            return objectMapper.writeValueAsBytes(errorResponse);
+        }
+    }
+
+    @Benchmark
+    public byte[] stacklessTemplate() {
+        long id = ThreadLocalRandom.current().nextLong(1_000_000);
+        try {
+            return throwAt(depth, () -> new UserNotFoundException("User not found with id: " + id));
+        } catch (CustomException e) {
+            return errorResponseWriter.write(HttpStatus.NOT_FOUND, e.getErrorCode(), e.getMessage(),
+                    "/api/users/" + id);
+        }
+    }
+
+    private static byte[] throwAt(int depth, ExceptionFactory factory) {
+        if (depth == 0) {
+            throw factory.create();
+        }
+        return throwAt(depth - 1, factory);
+    }
+
+    @FunctionalInterface
+    private interface ExceptionFactory {
+        CustomException create();
+    }
+
+    // Прежний CustomException: стек заполняется при создании
+    private static final class StackTraceUserNotFoundException extends CustomException {
+        StackTraceUserNotFoundException(String message) {
+            super(message, "USER_NOT_FOUND", true);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.UserReadDto;
+import com.example.demo.exception_handler.ErrorResponse;
+import com.example.demo.exception_handler.LoginResponse;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+// Сериализация ответов API. indentOutput=true соответствовал прежнему application.yml
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonSerializationBenchmark {
+
+    @Param({"true", "false"})
+    public boolean indentOutput;
+
+    private ObjectMapper objectMapper;
+    private UserReadDto userReadDto;
+    private Page<UserReadDto> page;
+    private ErrorResponse errorResponse;
+    private LoginResponse loginResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .indentOutput(indentOutput)
+                .build();
+        userReadDto = new UserReadDto(1L, "benchmarkUser", 0L);
+        List<UserReadDto> users = LongStream.rangeClosed(1, 20)
+                .mapToObj(id -> new UserReadDto(id, "benchmarkUser" + id, 0L))
+                .toList();
+        page = new PageImpl<>(users, PageRequest.of(0, 20), 1_000);
+        errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(404)
+                .error("USER_NOT_FOUND")
+                .message("User not found with id: 42")
+                .path("/api/users/42")
+                .build();
+        loginResponse = LoginResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(200)
+                .message("Authentication successful")
+                .username("benchmarkUser")
+                .role(List.of("USER"))
+                .build();
+    }
+
+    @Benchmark
+    public byte[] userReadDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(userReadDto);
+    }
+
+    @Benchmark
+    public byte[] userReadDtoPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] errorResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(errorResponse);
+    }
+
+    @Benchmark
+    public byte[] loginResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(loginResponse);
+    }
+}
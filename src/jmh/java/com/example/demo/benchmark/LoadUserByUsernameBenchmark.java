@@ -0,0 +1,64 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.Demo1Application;
+import com.example.demo.config.CacheConfiguration;
+import com.example.demo.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+// UserService.loadUserByUsername против H2 из application.yml: с кэшем UserDetails и без него
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoadUserByUsernameBenchmark {
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private Cache userDetailsCache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Demo1Application.class)
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=warn",
+                        "logging.level.org.h2=warn",
+                        "logging.level.liquibase=warn",
+                        "logging.level.org.springframework.security=warn")
+                .run();
+        userService = context.getBean(UserService.class);
+        userDetailsCache = context.getBean(CacheManager.class).getCache(CacheConfiguration.USER_DETAILS_CACHE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername() {
+        if (!cached) {
+            userDetailsCache.evict("alice");
+        }
+        return userService.loadUserByUsername("alice");
+    }
+}
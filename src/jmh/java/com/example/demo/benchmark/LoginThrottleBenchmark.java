@@ -0,0 +1,59 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.security.LoginThrottle;
+import com.example.demo.security.LoginThrottlingProperties;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// LoginThrottle под конкуренцией 64 потоков.
+// keys=1: все потоки бьют в один бакет (CAS на одном AtomicLong), keys=4096: ключи разнесены по кэшу.
+// admit: бакеты не исчерпываются и каждый вызов делает CAS; reject: путь отказа при атаке
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(64)
+public class LoginThrottleBenchmark {
+
+    @Param({"1", "4096"})
+    public int keys;
+
+    @Param({"admit", "reject"})
+    public String mode;
+
+    private LoginThrottle loginThrottle;
+    private String[] ips;
+    private String[] usernames;
+
+    @Setup
+    public void setUp() {
+        int capacity = "admit".equals(mode) ? Integer.MAX_VALUE : 5;
+        LoginThrottlingProperties properties = new LoginThrottlingProperties();
+        properties.setPerIp(new LoginThrottlingProperties.Bucket(capacity, Duration.ofDays(365)));
+        properties.setPerUsername(new LoginThrottlingProperties.Bucket(capacity, Duration.ofDays(365)));
+        loginThrottle = new LoginThrottle(properties, Ticker.systemTicker());
+        ips = new String[keys];
+        usernames = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            ips[i] = "10.0." + (i >> 8) + "." + (i & 0xff);
+            usernames[i] = "user" + i;
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        int key = ThreadLocalRandom.current().nextInt(keys);
+        return loginThrottle.tryAcquire(ips[key], usernames[key]);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.MessageDigestPasswordEncoder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Стоимость encode/matches для алгоритмов DelegatingPasswordEncoder, доступных без BouncyCastle.
+// matches идёт через тот же делегирующий encoder, что и в SecurityConfiguration
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@SuppressWarnings("deprecation")
+public class PasswordEncoderBenchmark {
+    private static final String RAW_PASSWORD = "benchmarkPassword";
+
+    @Param({"bcrypt", "pbkdf2@SpringSecurity_v5_8", "SHA-256", "noop"})
+    public String algorithm;
+
+    private PasswordEncoder encoder;
+    private PasswordEncoder applicationEncoder;
+    private String encodedPassword;
+
+    @Setup
+    public void setUp() {
+        PasswordEncoder delegate = switch (algorithm) {
+            case "bcrypt" -> new BCryptPasswordEncoder();
+            case "pbkdf2@SpringSecurity_v5_8" -> Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8();
+            case "SHA-256" -> new MessageDigestPasswordEncoder("SHA-256");
+            case "noop" -> NoOpPasswordEncoder.getInstance();
+            default -> throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        };
+        encoder = new DelegatingPasswordEncoder(algorithm, Map.of(algorithm, delegate));
+        applicationEncoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        encodedPassword = encoder.encode(RAW_PASSWORD);
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode(RAW_PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return applicationEncoder.matches(RAW_PASSWORD, encodedPassword);
+    }
+}
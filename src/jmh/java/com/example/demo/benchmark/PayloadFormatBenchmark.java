@@ -0,0 +1,60 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.UserReadDto;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+// Стоимость сериализации и размер страницы из 1000 user в каждом формате, который отдаёт /api/users.
+// Размер ответа печатается в лог форка при старте
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PayloadFormatBenchmark {
+
+    @Param({"json-indented", "json", "cbor", "smile"})
+    public String format;
+
+    private ObjectMapper objectMapper;
+    private Page<UserReadDto> page;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .indentOutput("json-indented".equals(format));
+        objectMapper = switch (format) {
+            case "cbor" -> builder.factory(new CBORFactory()).build();
+            case "smile" -> builder.factory(new SmileFactory()).build();
+            default -> builder.build();
+        };
+        List<UserReadDto> users = LongStream.rangeClosed(1, 1_000)
+                .mapToObj(id -> new UserReadDto(id, "benchmarkUser" + id, 0L))
+                .toList();
+        page = new PageImpl<>(users, PageRequest.of(0, 1_000), 100_000);
+        System.out.println(format + " page size: " + objectMapper.writeValueAsBytes(page).length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] userReadDtoPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.security.JwtProperties;
+import com.example.demo.security.TokenRevocationList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Проверка отзыва токена при revoked отозванных jti в одном поколении.
+// notRevoked — обычный запрос: ключ почти всегда отсекается Bloom-фильтром, revoked — ключ есть в таблице.
+// Доля ложных срабатываний фильтра на 1M неотозванных jti печатается в лог форка при старте
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1500m")
+public class TokenRevocationBenchmark {
+    private static final int SAMPLE_SIZE = 1 << 20;
+    private static final Duration PERIOD = Duration.ofHours(1);
+
+    @Param({"10000000"})
+    public int revoked;
+
+    @Param({"0.01"})
+    public double falsePositiveProbability;
+
+    private TokenRevocationList revocationList;
+    private Instant issuedAt;
+    private String[] revokedIds;
+    private String[] notRevokedIds;
+
+    @Setup
+    public void setUp() {
+        JwtProperties.Revocation properties = new JwtProperties.Revocation();
+        properties.setExpectedRevocations(revoked);
+        properties.setFalsePositiveProbability(falsePositiveProbability);
+        revocationList = new TokenRevocationList(properties, PERIOD, Clock.systemUTC());
+        issuedAt = Instant.now();
+        Instant expiresAt = issuedAt.plus(PERIOD);
+
+        SplittableRandom random = new SplittableRandom(42);
+        revokedIds = new String[SAMPLE_SIZE];
+        int sampleStep = Math.max(1, revoked / SAMPLE_SIZE);
+        for (int i = 0; i < revoked; i++) {
+            String id = new UUID(random.nextLong(), random.nextLong()).toString();
+            revocationList.revoke(id, issuedAt, expiresAt);
+            if (i % sampleStep == 0 && i / sampleStep < SAMPLE_SIZE) {
+                revokedIds[i / sampleStep] = id;
+            }
+        }
+        notRevokedIds = new String[SAMPLE_SIZE];
+        long falsePositives = 0;
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            notRevokedIds[i] = new UUID(random.nextLong(), random.nextLong()).toString();
+            if (revocationList.mightBeRevoked(notRevokedIds[i])) {
+                falsePositives++;
+            }
+        }
+        System.out.printf("revoked=%d false positive rate: %.4f%% (configured %.4f%%)%n",
+                revoked, 100.0 * falsePositives / SAMPLE_SIZE, 100 * falsePositiveProbability);
+    }
+
+    @Benchmark
+    public boolean notRevoked() {
+        return revocationList.isRevoked(notRevokedIds[ThreadLocalRandom.current().nextInt(SAMPLE_SIZE)], issuedAt);
+    }
+
+    @Benchmark
+    public boolean revoked() {
+        return revocationList.isRevoked(revokedIds[ThreadLocalRandom.current().nextInt(SAMPLE_SIZE)], issuedAt);
+    }
+}
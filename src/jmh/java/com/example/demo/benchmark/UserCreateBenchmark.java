@@ -0,0 +1,73 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.Demo1Application;
+import com.example.demo.entity.Role;
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Пропускная способность создания user в 8 потоков: SELECT + INSERT против одного INSERT.
+// Хэширование пароля исключено, чтобы сравнивать только работу с базой
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class UserCreateBenchmark {
+
+    @Param({"checkThenInsert", "insert"})
+    public String createPath;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Demo1Application.class)
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=warn",
+                        "logging.level.org.h2=warn",
+                        "logging.level.liquibase=warn",
+                        "logging.level.org.springframework.security=warn")
+                .run();
+        userRepository = context.getBean(UserRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public User create() {
+        User user = User.builder()
+                .username("bench_" + sequence.incrementAndGet())
+                .password("{noop}password")
+                .role(Role.USER)
+                .createdAt(LocalDateTime.now())
+                .build();
+        if ("checkThenInsert".equals(createPath)
+                && userRepository.findUserByUsername(user.getUsername()).isPresent()) {
+            return null;
+        }
+        return userRepository.saveAndFlush(user);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.UserCreateDto;
+import com.example.demo.dto.UserEditDto;
+import com.example.demo.dto.UserReadDto;
+import com.example.demo.entity.Role;
+import com.example.demo.entity.User;
+import com.example.demo.mapper.UserMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserMapperBenchmark {
+    private UserMapper userMapper;
+    private User user;
+    private UserCreateDto userCreateDto;
+    private UserEditDto userEditDto;
+    private UserReadDto userReadDto;
+
+    @Setup
+    public void setUp() {
+        userMapper = Mappers.getMapper(UserMapper.class);
+        user = User.builder()
+                .id(1L)
+                .username("benchmarkUser")
+                .password("{noop}benchmarkPassword")
+                .role(Role.USER)
+                .createdAt(LocalDateTime.now())
+                .build();
+        userCreateDto = new UserCreateDto("benchmarkUser", "benchmarkPassword", Role.USER);
+        userEditDto = new UserEditDto("benchmarkUser", "benchmarkPassword", Role.ADMIN);
+        userReadDto = new UserReadDto(1L, "benchmarkUser", 0L);
+    }
+
+    @Benchmark
+    public UserReadDto userToUserReadDto() {
+        return userMapper.userToUserReadDto(user);
+    }
+
+    @Benchmark
+    public UserEditDto userToUserEditDto() {
+        return userMapper.userToUserEditDto(user);
+    }
+
+    @Benchmark
+    public UserCreateDto userToUserCreateDto() {
+        return userMapper.userToUserCreateDto(user);
+    }
+
+    @Benchmark
+    public User userCreateDtoToUser() {
+        return userMapper.userCreateDtoToUser(userCreateDto);
+    }
+
+    @Benchmark
+    public User userEditDtoToUser() {
+        return userMapper.userEditDtoToUser(userEditDto);
+    }
+
+    @Benchmark
+    public User userReadDtoToUser() {
+        return userMapper.userReadDtoToUser(userReadDto);
+    }
+
+    @Benchmark
+    public User updateUserFromUserEditDto() {
+        User target = new User();
+        userMapper.updateUserFromUserEditDto(userEditDto, target);
+        return target;
+    }
+}
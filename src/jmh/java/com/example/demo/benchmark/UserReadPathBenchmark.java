@@ -0,0 +1,104 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.Demo1Application;
+import com.example.demo.dto.UserReadDto;
+import com.example.demo.mapper.UserMapper;
+import com.example.demo.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Чтение user через сущность + UserMapper против DTO-проекции на засеянной таблице.
+// Каждая операция идёт в своей транзакции, как запрос с открытым persistence context.
+// Аллокации: ./gradlew jmh -PjmhArgs='UserReadPathBenchmark -prof gc -wi 3 -i 5 -f 1'
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserReadPathBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int PAGE_SIZE = 100;
+    // Хэш BCrypt той же длины, что хранится в колонке password
+    private static final String PASSWORD_HASH = "$2a$10$" + "x".repeat(53);
+
+    @Param({"entity", "projection"})
+    public String readPath;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private UserMapper userMapper;
+    private TransactionTemplate transactionTemplate;
+    private long minId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Demo1Application.class)
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=warn",
+                        "logging.level.org.h2=warn",
+                        "logging.level.liquibase=warn",
+                        "logging.level.org.springframework.security=warn")
+                .run();
+        userRepository = context.getBean(UserRepository.class);
+        userMapper = context.getBean(UserMapper.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        seed(context.getBean(JdbcTemplate.class));
+        minId = context.getBean(JdbcTemplate.class).queryForObject("select min(id) from users", Long.class);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(1000);
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(new Object[]{"bench-user-" + i, PASSWORD_HASH, "USER", now});
+            if (batch.size() == 1000) {
+                jdbcTemplate.batchUpdate("insert into users(username, password, role, created_at) values (?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserReadDto findById() {
+        long id = minId + ThreadLocalRandom.current().nextInt(ROWS);
+        return transactionTemplate.execute(status -> "entity".equals(readPath)
+                ? userRepository.findById(id).map(userMapper::userToUserReadDto).orElseThrow()
+                : userRepository.findReadDtoById(id).orElseThrow());
+    }
+
+    @Benchmark
+    public Page<UserReadDto> findAllPage() {
+        PageRequest pageable = PageRequest.of(ThreadLocalRandom.current().nextInt(ROWS / PAGE_SIZE), PAGE_SIZE);
+        return transactionTemplate.execute(status -> "entity".equals(readPath)
+                ? userRepository.findAll(pageable).map(userMapper::userToUserReadDto)
+                : userRepository.findAllReadDtos(pageable));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.Demo1Application;
+import com.example.demo.dto.UserReadDto;
+import com.example.demo.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Поиск по префиксу username на 1M user: range scan по индексу на username_lower.
+// Префиксы — от почти всей таблицы ("b") до единственного совпадения и пустого результата
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserSearchBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final int LIMIT = 10;
+
+    @Param({"b", "Bench", "bench5", "BENCH12345", "bench99999", "nobody"})
+    public String prefix;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Demo1Application.class)
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=warn",
+                        "logging.level.org.h2=warn",
+                        "logging.level.liquibase=warn",
+                        "logging.level.org.springframework.security=warn")
+                .run();
+        userService = context.getBean(UserService.class);
+        context.getBean(JdbcTemplate.class).update("insert into users(username, role, password, created_at) "
+                + "select 'Bench' || x, 'USER', '{noop}bench', current_timestamp from system_range(1, ?)", ROWS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<UserReadDto> searchByUsernamePrefix() {
+        return userService.searchByUsernamePrefix(prefix, LIMIT);
+    }
+}
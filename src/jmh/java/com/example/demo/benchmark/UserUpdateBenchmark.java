@@ -0,0 +1,87 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.Demo1Application;
+import com.example.demo.dto.UserEditDto;
+import com.example.demo.entity.Role;
+import com.example.demo.entity.User;
+import com.example.demo.mapper.UserMapper;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+// Задержка обновления user: прежний путь findById + маппинг + saveAndFlush против выборки версии и одного UPDATE,
+// а также PATCH роли и PUT с паролем через UserService. В прежнем пути пароль не хэшируется,
+// чтобы сравнивать только работу с базой; putWithPassword показывает цену bcrypt
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserUpdateBenchmark {
+
+    @Param({"loadAndSave", "versionAndUpdate", "patchRole", "putWithPassword"})
+    public String updatePath;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserRepository userRepository;
+    private UserMapper userMapper;
+    private Long id;
+    private int iteration;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Demo1Application.class)
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=warn",
+                        "logging.level.org.h2=warn",
+                        "logging.level.liquibase=warn",
+                        "logging.level.org.springframework.security=warn")
+                .run();
+        userService = context.getBean(UserService.class);
+        userRepository = context.getBean(UserRepository.class);
+        userMapper = context.getBean(UserMapper.class);
+        id = context.getBean(JdbcTemplate.class)
+                .queryForObject("select id from users where username = 'diana'", Long.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Роль и пароль чередуются, чтобы каждое обновление действительно меняло строку
+    @Benchmark
+    public Object update() {
+        int i = iteration++;
+        Role role = i % 2 == 0 ? Role.ADMIN : Role.USER;
+        return switch (updatePath) {
+            case "loadAndSave" -> {
+                User user = userRepository.findById(id).orElseThrow();
+                userMapper.updateUserFromUserEditDto(new UserEditDto("diana", "{noop}diana" + i, Role.USER), user);
+                yield userRepository.saveAndFlush(user);
+            }
+            case "versionAndUpdate" -> {
+                Long version = userRepository.findReadDtoById(id).orElseThrow().getVersion();
+                yield userRepository.updatePartially(id, version, null, null, role);
+            }
+            case "patchRole" -> userService.update(id, UserEditDto.builder().role(role).build()).join();
+            case "putWithPassword" -> userService.update(id, new UserEditDto("diana", "diana" + i, Role.USER)).join();
+            default -> throw new IllegalArgumentException("Unknown update path: " + updatePath);
+        };
+    }
+}
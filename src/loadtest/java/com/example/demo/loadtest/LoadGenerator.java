@@ -0,0 +1,81 @@
+package com.example.demo.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Открытая модель: запросы отправляются по расписанию прихода независимо от того, ответил ли сервер
+// на предыдущие. Медленный сервер копит запросы в полёте, а не снижает нагрузку, как в закрытой модели
+public class LoadGenerator {
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final UserScenario scenario;
+    private final LoadTestOptions options;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public LoadGenerator(UserScenario scenario, LoadTestOptions options) {
+        this.scenario = scenario;
+        this.options = options;
+    }
+
+    public Map<Operation, OperationStats> run(Duration duration) {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        // Расписание считается от старта, а не от фактической отправки: опоздание генератора не сдвигает план
+        double scheduled = start;
+        while (scheduled < end) {
+            long intendedStart = (long) scheduled;
+            parkUntil(intendedStart);
+            Operation operation = scenario.resolve(scenario.nextOperation());
+            OperationStats operationStats = stats.get(operation);
+            if (inFlight.get() >= options.maxInFlight()) {
+                operationStats.recordRejected();
+            } else {
+                inFlight.incrementAndGet();
+                long sendStart = System.nanoTime();
+                scenario.execute(operation).whenComplete((status, e) -> {
+                    long now = System.nanoTime();
+                    if (e != null) {
+                        operationStats.recordTransportError(now - intendedStart, now - sendStart);
+                    } else {
+                        operationStats.recordResponse(status, now - intendedStart, now - sendStart);
+                    }
+                    inFlight.decrementAndGet();
+                });
+            }
+            scheduled += nextInterval(meanIntervalNanos);
+        }
+        drain();
+        return stats;
+    }
+
+    private double nextInterval(double meanIntervalNanos) {
+        if (options.arrival() == LoadTestOptions.Arrival.CONSTANT) {
+            return meanIntervalNanos;
+        }
+        return -Math.log(1.0 - ThreadLocalRandom.current().nextDouble()) * meanIntervalNanos;
+    }
+
+    private void drain() {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    private static void parkUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.Demo1Application;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+// ./gradlew loadTest -PloadTestArgs='--rate=200 --duration=60s --warmup=10s --arrival=poisson'
+// --url=http://host:port нацеливает прогон на уже запущенное приложение
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext application = null;
+        URI baseUri;
+        if (options.url() == null) {
+            application = startApplication();
+            baseUri = URI.create("http://localhost:" + application.getEnvironment().getProperty("local.server.port"));
+        } else {
+            baseUri = URI.create(options.url());
+        }
+        try {
+            UserScenario scenario = new UserScenario(baseUri, options.mix());
+            scenario.prepare(options.sessions(), options.username(), options.password());
+            LoadGenerator generator = new LoadGenerator(scenario, options);
+            if (!options.warmup().isZero()) {
+                System.out.printf("Warming up for %ds at %.1f req/s%n", options.warmup().toSeconds(), options.rate());
+                generator.run(options.warmup());
+            }
+            System.out.printf("Measuring for %ds at %.1f req/s against %s%n",
+                    options.duration().toSeconds(), options.rate(), baseUri);
+            Instant startedAt = Instant.now();
+            long start = System.nanoTime();
+            Map<Operation, OperationStats> stats = generator.run(options.duration());
+            LoadTestReport report = new LoadTestReport(options, startedAt, Duration.ofNanos(System.nanoTime() - start), stats);
+            report.print(System.out);
+            Path json = report.write();
+            System.out.println("Report: " + json.toAbsolutePath());
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+        }
+    }
+
+    // Отладочное логирование искажает замер, поэтому в прогоне отключено
+    private static ConfigurableApplicationContext startApplication() {
+        return SpringApplication.run(Demo1Application.class,
+                "--server.port=0",
+                "--logging.level.root=warn",
+                "--logging.level.liquibase=warn",
+                "--logging.level.org.h2=warn",
+                "--logging.level.org.springframework.security=warn");
+    }
+}
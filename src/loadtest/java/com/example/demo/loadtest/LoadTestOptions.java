@@ -0,0 +1,68 @@
+package com.example.demo.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+// Параметры прогона в виде --name=value, например --rate=200 --duration=2m --mix=get=80,list=20
+public record LoadTestOptions(
+        String url,
+        double rate,
+        Duration duration,
+        Duration warmup,
+        Arrival arrival,
+        int sessions,
+        int maxInFlight,
+        String username,
+        String password,
+        Map<Operation, Integer> mix,
+        Path reportDir,
+        String label) {
+
+    public enum Arrival {
+        // Ровно 1/rate между запросами
+        CONSTANT,
+        // Экспоненциальные интервалы со средним 1/rate: поток независимых клиентов
+        POISSON
+    }
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestOptions(
+                values.get("url"),
+                Double.parseDouble(values.getOrDefault("rate", "100")),
+                DurationStyle.detectAndParse(values.getOrDefault("duration", "60s")),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+                Arrival.valueOf(values.getOrDefault("arrival", "poisson").toUpperCase()),
+                Integer.parseInt(values.getOrDefault("sessions", "8")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "5000")),
+                values.getOrDefault("username", "admin"),
+                values.getOrDefault("password", "1234"),
+                parseMix(values.getOrDefault("mix", "get=60,list=20,create=8,update=7,delete=5")),
+                Path.of(values.getOrDefault("report-dir", "build/reports/loadtest")),
+                values.getOrDefault("label", "local"));
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            weights.put(Operation.byKey(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Каждый прогон пишет два файла с общим именем <label>-<время>:
+// .json — сводка с перцентилями для сравнения сборок, .hlog — гистограммы для HdrHistogram-инструментов
+public class LoadTestReport {
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+            .withZone(ZoneOffset.UTC);
+    private static final double MICROS_PER_MILLI = 1000.0;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final LoadTestOptions options;
+    private final Instant startedAt;
+    private final Duration elapsed;
+    private final Map<Operation, OperationStats> stats;
+
+    public LoadTestReport(LoadTestOptions options, Instant startedAt, Duration elapsed,
+                          Map<Operation, OperationStats> stats) {
+        this.options = options;
+        this.startedAt = startedAt;
+        this.elapsed = elapsed;
+        this.stats = stats;
+    }
+
+    public Path write() throws IOException {
+        Files.createDirectories(options.reportDir());
+        String baseName = options.label() + "-" + FILE_TIME.format(startedAt);
+        Path json = options.reportDir().resolve(baseName + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(json.toFile(), summary());
+        writeHistogramLog(options.reportDir().resolve(baseName + ".hlog"));
+        return json;
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%-8s %9s %7s %9s %9s %9s %9s %9s   response time, ms%n",
+                "op", "count", "errors", "p50", "p90", "p99", "p99.9", "max");
+        Histogram total = new Histogram(3);
+        stats.forEach((operation, operationStats) -> {
+            Histogram histogram = operationStats.getResponseTime();
+            total.add(histogram);
+            if (histogram.getTotalCount() > 0 || operationStats.getRejected() > 0) {
+                printRow(out, operation.key(), histogram, operationStats.getErrorCount());
+            }
+        });
+        long errors = stats.values().stream().mapToLong(OperationStats::getErrorCount).sum();
+        printRow(out, "all", total, errors);
+        out.printf("target %.1f req/s, achieved %.1f req/s over %ds%n",
+                options.rate(), total.getTotalCount() / (elapsed.toNanos() / 1e9), elapsed.toSeconds());
+    }
+
+    private Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("label", options.label());
+        summary.put("startedAt", startedAt.toString());
+        summary.put("elapsedSeconds", elapsed.toMillis() / 1000.0);
+        summary.put("targetRate", options.rate());
+        summary.put("arrival", options.arrival());
+        summary.put("sessions", options.sessions());
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        options.mix().forEach((operation, weight) -> mix.put(operation.key(), weight));
+        summary.put("mix", mix);
+        Map<String, Object> operations = new LinkedHashMap<>();
+        stats.forEach((operation, operationStats) -> {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("count", operationStats.getResponseTime().getTotalCount());
+            values.put("throughput", operationStats.getResponseTime().getTotalCount() / (elapsed.toNanos() / 1e9));
+            values.put("errors", operationStats.getErrorCount());
+            values.put("statusCounts", operationStats.getStatusCounts());
+            values.put("transportErrors", operationStats.getTransportErrors());
+            values.put("rejected", operationStats.getRejected());
+            values.put("responseTimeMs", percentiles(operationStats.getResponseTime()));
+            values.put("serviceTimeMs", percentiles(operationStats.getServiceTime()));
+            operations.put(operation.key(), values);
+        });
+        summary.put("operations", operations);
+        return summary;
+    }
+
+    private static Map<String, Double> percentiles(Histogram histogram) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            String key = percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+            values.put("p" + key, histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI);
+        }
+        values.put("max", histogram.getMaxValue() / MICROS_PER_MILLI);
+        values.put("mean", histogram.getMean() / MICROS_PER_MILLI);
+        return values;
+    }
+
+    private void writeHistogramLog(Path path) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(path))) {
+            HistogramLogWriter writer = new HistogramLogWriter(out);
+            writer.outputLogFormatVersion();
+            writer.outputStartTime(startedAt.toEpochMilli());
+            writer.outputLegend();
+            double endSeconds = elapsed.toMillis() / 1000.0;
+            stats.forEach((operation, operationStats) -> {
+                Histogram histogram = operationStats.getResponseTime().copy();
+                histogram.setTag(operation.key());
+                writer.outputIntervalHistogram(0, endSeconds, histogram, MICROS_PER_MILLI);
+            });
+        }
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram, long errors) {
+        out.printf("%-8s %9d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, histogram.getTotalCount(), errors,
+                histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(90) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                histogram.getMaxValue() / MICROS_PER_MILLI);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.loadtest;
+
+import java.util.Arrays;
+
+public enum Operation {
+    GET_BY_ID("get"),
+    FIND_ALL("list"),
+    CREATE("create"),
+    UPDATE("update"),
+    DELETE("delete");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static Operation byKey(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation: " + key));
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.demo.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Гистограммы в микросекундах, до часа, 3 значащие цифры.
+// responseTime отсчитывается от запланированного момента отправки: если генератор или клиент
+// отстали, ожидание попадает в задержку (поправка на coordinated omission).
+// serviceTime — от фактической отправки, для сравнения
+public class OperationStats {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    private final LongAdder transportErrors = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public void recordResponse(int status, long responseNanos, long serviceNanos) {
+        responseTime.recordValue(toMicros(responseNanos));
+        serviceTime.recordValue(toMicros(serviceNanos));
+        statusCounts.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    public void recordTransportError(long responseNanos, long serviceNanos) {
+        responseTime.recordValue(toMicros(responseNanos));
+        serviceTime.recordValue(toMicros(serviceNanos));
+        transportErrors.increment();
+    }
+
+    // Запрос не отправлен: превышен --max-in-flight. В открытой модели это тоже отказ
+    public void recordRejected() {
+        rejected.increment();
+    }
+
+    public Histogram getResponseTime() {
+        return responseTime;
+    }
+
+    public Histogram getServiceTime() {
+        return serviceTime;
+    }
+
+    public Map<Integer, Long> getStatusCounts() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statusCounts.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+
+    public long getErrorCount() {
+        long httpErrors = statusCounts.entrySet().stream()
+                .filter(entry -> entry.getKey() >= 400)
+                .mapToLong(entry -> entry.getValue().sum())
+                .sum();
+        return httpErrors + transportErrors.sum() + rejected.sum();
+    }
+
+    public long getTransportErrors() {
+        return transportErrors.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+}
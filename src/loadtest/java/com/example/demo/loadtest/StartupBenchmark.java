@@ -0,0 +1,211 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// ./gradlew startupBenchmark -PstartupRuns=5
+// Время от запуска JVM до первого успешного GET /api/users после form login, отдельным процессом на каждый прогон.
+// baseline — обычный fat jar, aot — тот же jar с AOT-инициализацией и профилем fast-start,
+// fast-start — распакованный jar с CDS-архивом, AOT и профилем fast-start
+public class StartupBenchmark {
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+            .withZone(ZoneOffset.UTC);
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in ([0-9.]+) seconds");
+
+    enum Mode {
+        BASELINE,
+        AOT,
+        FAST_START;
+
+        String key() {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    private final String java;
+    private final Path jar;
+    private final Path appDir;
+    private final Path reportDir;
+
+    StartupBenchmark(String java, Path jar, Path appDir, Path reportDir) {
+        this.java = java;
+        this.jar = jar;
+        this.appDir = appDir;
+        this.reportDir = reportDir;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        StartupBenchmark benchmark = new StartupBenchmark(
+                values.getOrDefault("java", "java"),
+                Path.of(values.getOrDefault("jar", "build/libs/demo1-0.0.1-SNAPSHOT.jar")),
+                Path.of(values.getOrDefault("app-dir", "build/cds/app")),
+                Path.of(values.getOrDefault("report-dir", "build/reports/startup")));
+        int runs = Integer.parseInt(values.getOrDefault("runs", "5"));
+
+        Instant startedAt = Instant.now();
+        Files.createDirectories(benchmark.reportDir);
+        Map<String, Object> modes = new LinkedHashMap<>();
+        System.out.printf("%-11s %9s %9s %9s %12s   time to first GET /api/users, ms%n",
+                "mode", "median", "min", "max", "spring, ms");
+        for (Mode mode : Mode.values()) {
+            List<Long> firstResponse = new ArrayList<>();
+            List<Long> springStartup = new ArrayList<>();
+            for (int run = 0; run < runs; run++) {
+                RunResult result = benchmark.run(mode, run);
+                firstResponse.add(result.firstResponseMillis());
+                if (result.springStartupMillis() >= 0) {
+                    springStartup.add(result.springStartupMillis());
+                }
+            }
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("firstResponseMs", firstResponse);
+            summary.put("medianMs", median(firstResponse));
+            summary.put("minMs", firstResponse.stream().mapToLong(Long::longValue).min().orElse(0));
+            summary.put("maxMs", firstResponse.stream().mapToLong(Long::longValue).max().orElse(0));
+            summary.put("springStartupMs", springStartup);
+            modes.put(mode.key(), summary);
+            System.out.printf("%-11s %9d %9d %9d %12d%n", mode.key(), summary.get("medianMs"),
+                    summary.get("minMs"), summary.get("maxMs"), median(springStartup));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", startedAt.toString());
+        report.put("java", benchmark.java);
+        report.put("runs", runs);
+        report.put("modes", modes);
+        Path json = benchmark.reportDir.resolve("startup-" + FILE_TIME.format(startedAt) + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(json.toFile(), report);
+        System.out.println("Report: " + json.toAbsolutePath());
+    }
+
+    RunResult run(Mode mode, int run) throws IOException, InterruptedException {
+        int port = freePort();
+        Path log = reportDir.resolve(mode.key() + "-" + run + ".log");
+        ProcessBuilder builder = new ProcessBuilder(command(mode, port))
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile());
+        if (mode == Mode.FAST_START) {
+            builder.directory(appDir.toFile());
+        }
+        long start = System.nanoTime();
+        Process process = builder.start();
+        try {
+            awaitFirstResponse(process, URI.create("http://localhost:" + port));
+            long firstResponseMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return new RunResult(firstResponseMillis, springStartupMillis(log));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    // Отладочное логирование одинаково приглушено во всех режимах, чтобы сравнивать только сам старт
+    private List<String> command(Mode mode, int port) {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        if (mode == Mode.FAST_START) {
+            command.add("-XX:SharedArchiveFile=application.jsa");
+        }
+        if (mode != Mode.BASELINE) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.add("-jar");
+        command.add(mode == Mode.FAST_START ? jar.getFileName().toString() : jar.toAbsolutePath().toString());
+        command.add("--server.port=" + port);
+        command.add("--logging.level.liquibase=warn");
+        command.add("--logging.level.org.h2=warn");
+        command.add("--logging.level.org.springframework.security=warn");
+        if (mode != Mode.BASELINE) {
+            command.add("--spring.profiles.active=fast-start");
+        }
+        return command;
+    }
+
+    // Успех — 200 на GET /api/users после логина: открытый порт ещё не значит, что приложение обслуживает запросы
+    private static void awaitFirstResponse(Process process, URI baseUri) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+        HttpRequest login = HttpRequest.newBuilder(baseUri.resolve("/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("username=admin&password=1234"))
+                .build();
+        HttpRequest users = HttpRequest.newBuilder(baseUri.resolve("/api/users")).GET().build();
+        boolean loggedIn = false;
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with code " + process.exitValue());
+            }
+            try {
+                if (!loggedIn) {
+                    loggedIn = client.send(login, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                }
+                if (loggedIn && client.send(users, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Порт ещё не открыт
+            }
+            Thread.sleep(POLL_INTERVAL);
+        }
+        throw new IllegalStateException("No successful GET /api/users within " + STARTUP_TIMEOUT);
+    }
+
+    private static long springStartupMillis(Path log) throws IOException {
+        Matcher matcher = STARTED.matcher(Files.readString(log));
+        return matcher.find() ? Math.round(Double.parseDouble(matcher.group(1)) * 1000) : -1;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long median(List<Long> values) {
+        if (values.isEmpty()) {
+            return -1;
+        }
+        List<Long> sorted = values.stream().sorted().toList();
+        return sorted.get(sorted.size() / 2);
+    }
+
+    record RunResult(long firstResponseMillis, long springStartupMillis) {
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Сценарий над /api/users: каждая сессия — свой HttpClient с cookie JSESSIONID после form login.
+// update и delete работают только с user, созданными этим прогоном; пока таких нет, выполняется create
+public class UserScenario {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String JSON = "application/json";
+
+    private final URI baseUri;
+    private final List<HttpClient> sessions = new ArrayList<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int[] cumulativeWeights;
+    private final Operation[] operations;
+    private final List<Long> readIds = new ArrayList<>();
+    private final ConcurrentLinkedQueue<Long> createdIds = new ConcurrentLinkedQueue<>();
+    private final AtomicLong usernameCounter = new AtomicLong();
+    private final String usernamePrefix = "lt" + Long.toString(System.currentTimeMillis() % 1_000_000, 36);
+
+    public UserScenario(URI baseUri, Map<Operation, Integer> mix) {
+        this.baseUri = baseUri;
+        this.operations = mix.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    // Логин всех сессий и список id для чтения; выполняется до отсчёта времени
+    public void prepare(int sessionCount, String username, String password) throws IOException, InterruptedException {
+        for (int i = 0; i < sessionCount; i++) {
+            HttpClient client = HttpClient.newBuilder()
+                    .cookieHandler(new CookieManager())
+                    .connectTimeout(REQUEST_TIMEOUT)
+                    .build();
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(baseUri.resolve("/login"))
+                            .header("Content-Type", "application/x-www-form-urlencoded")
+                            .header("Accept", JSON)
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                    "username=" + username + "&password=" + password, StandardCharsets.UTF_8))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Login failed with status " + response.statusCode() + ": "
+                        + response.body());
+            }
+            sessions.add(client);
+        }
+        HttpResponse<String> page = sessions.get(0).send(
+                get("/api/users?size=100"), HttpResponse.BodyHandlers.ofString());
+        for (JsonNode user : objectMapper.readTree(page.body()).path("content")) {
+            readIds.add(user.path("id").asLong());
+        }
+        if (readIds.isEmpty()) {
+            throw new IllegalStateException("No users to read: " + page.statusCode() + " " + page.body());
+        }
+    }
+
+    public Operation nextOperation() {
+        int point = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (point < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Weights are exhausted");
+    }
+
+    // Фактически выполненная операция может отличаться от запрошенной (update/delete без созданных user)
+    public Operation resolve(Operation operation) {
+        if ((operation == Operation.UPDATE || operation == Operation.DELETE) && createdIds.isEmpty()) {
+            return Operation.CREATE;
+        }
+        return operation;
+    }
+
+    // Код ответа; исключения транспорта возвращаются через future
+    public CompletableFuture<Integer> execute(Operation operation) {
+        HttpClient client = sessions.get(ThreadLocalRandom.current().nextInt(sessions.size()));
+        return switch (operation) {
+            case GET_BY_ID -> send(client, get("/api/users/" + readIds.get(
+                    ThreadLocalRandom.current().nextInt(readIds.size()))));
+            case FIND_ALL -> send(client, get("/api/users?page=" + ThreadLocalRandom.current().nextInt(5) + "&size=20"));
+            case CREATE -> create(client);
+            case UPDATE -> update(client);
+            case DELETE -> delete(client);
+        };
+    }
+
+    private CompletableFuture<Integer> create(HttpClient client) {
+        String body = "{\"username\":\"" + nextUsername() + "\",\"password\":\"password\",\"role\":\"USER\"}";
+        HttpRequest request = request("/api/users")
+                .header("Content-Type", JSON)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+            if (response.statusCode() == 201) {
+                createdIds.add(readId(response.body()));
+            }
+            return response.statusCode();
+        });
+    }
+
+    private CompletableFuture<Integer> update(HttpClient client) {
+        Long id = createdIds.poll();
+        if (id == null) {
+            return create(client);
+        }
+        HttpRequest request = request("/api/users/" + id)
+                .header("Content-Type", JSON)
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"username\":\"" + nextUsername() + "\"}"))
+                .build();
+        return send(client, request).whenComplete((status, e) -> createdIds.add(id));
+    }
+
+    private CompletableFuture<Integer> delete(HttpClient client) {
+        Long id = createdIds.poll();
+        if (id == null) {
+            return create(client);
+        }
+        return send(client, request("/api/users/" + id).DELETE().build());
+    }
+
+    private CompletableFuture<Integer> send(HttpClient client, HttpRequest request) {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).thenApply(HttpResponse::statusCode);
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", JSON);
+    }
+
+    // username ограничен 24 символами
+    private String nextUsername() {
+        return usernamePrefix + Long.toString(usernameCounter.incrementAndGet(), 36);
+    }
+
+    private long readId(String body) {
+        try {
+            return objectMapper.readTree(body).path("id").asLong();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unexpected create response: " + body, e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.demo.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class CacheConfiguration {
+    // Размер, TTL и сбор статистики задаются в spring.cache.caffeine.spec
+    public static final String USER_DETAILS_CACHE = "userDetails";
+
+    // Регионы кэша второго уровня Hibernate
+    public static final String USERS_REGION = "users";
+    public static final String USERS_BY_USERNAME_REGION = "usersByUsername";
+    // Регион по умолчанию для запросов без своего региона; Hibernate создаёт его всегда
+    private static final String DEFAULT_QUERY_RESULTS_REGION = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+    // Время последнего изменения таблиц: по нему Hibernate отбрасывает устаревшие результаты запросов.
+    // Записей по одной на таблицу, поэтому TTL нет — иначе кэш запросов отдавал бы устаревшее
+    private static final String UPDATE_TIMESTAMPS_REGION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+    private static final long UPDATE_TIMESTAMPS_MAXIMUM_SIZE = 1_000;
+
+    // Отдельный JCache-менеджер на каждый контекст: у провайдера Caffeine менеджеры живут по URI,
+    // и с общим URI контексты с разными базами (например, в тестах) видели бы сущности друг друга
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(SecondLevelCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        CaffeineConfiguration<Object, Object> regionConfiguration = new CaffeineConfiguration<>();
+        regionConfiguration.setMaximumSize(OptionalLong.of(properties.getMaximumSize()));
+        regionConfiguration.setExpireAfterWrite(OptionalLong.of(properties.getExpireAfterWrite().toNanos()));
+        cacheManager.createCache(USERS_REGION, regionConfiguration);
+        cacheManager.createCache(USERS_BY_USERNAME_REGION, regionConfiguration);
+        cacheManager.createCache(DEFAULT_QUERY_RESULTS_REGION, regionConfiguration);
+
+        CaffeineConfiguration<Object, Object> timestampsConfiguration = new CaffeineConfiguration<>();
+        timestampsConfiguration.setMaximumSize(OptionalLong.of(UPDATE_TIMESTAMPS_MAXIMUM_SIZE));
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, timestampsConfiguration);
+        return cacheManager;
+    }
+
+    // Кэш второго уровня включается здесь, а не в application.yml: срезы вроде @DataJpaTest
+    // не поднимают эту конфигурацию и работают без кэша. Регион, не созданный выше, — ошибка старта
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+        };
+    }
+}
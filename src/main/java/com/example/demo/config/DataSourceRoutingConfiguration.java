@@ -0,0 +1,58 @@
+package com.example.demo.config;
+
+import com.example.demo.datasource.DataSourceRoutingProperties;
+import com.example.demo.datasource.ReadWriteRoutingDataSource;
+import com.example.demo.datasource.ReadYourWritesTracker;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+// Два пула Hikari (метрики hikaricp.* с pool=primary и pool=replica) за маршрутизирующим DataSource.
+// Без datasource.routing.enabled остаётся обычный автоконфигурированный spring.datasource
+@Configuration
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+public class DataSourceRoutingConfiguration {
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "datasource.routing", name = "enabled", havingValue = "true")
+    static class RoutingDataSources {
+
+        @Bean
+        @ConfigurationProperties("spring.datasource.hikari")
+        public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+            HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .build();
+            dataSource.setPoolName("primary");
+            return dataSource;
+        }
+
+        @Bean
+        @ConfigurationProperties("datasource.routing.replica")
+        public HikariDataSource replicaDataSource() {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica");
+            dataSource.setReadOnly(true);
+            return dataSource;
+        }
+
+        @Bean
+        @Primary
+        public DataSource dataSource(HikariDataSource primaryDataSource,
+                                     HikariDataSource replicaDataSource,
+                                     ReadYourWritesTracker readYourWritesTracker,
+                                     MeterRegistry meterRegistry) {
+            return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(
+                    primaryDataSource, replicaDataSource, readYourWritesTracker, meterRegistry));
+        }
+    }
+}
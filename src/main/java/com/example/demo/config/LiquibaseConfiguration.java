@@ -0,0 +1,48 @@
+package com.example.demo.config;
+
+import com.example.demo.datasource.DatabaseMigrationProperties;
+import com.example.demo.datasource.SkipIfUnchangedSpringLiquibase;
+import liquibase.integration.spring.SpringLiquibase;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// Заменяет SpringLiquibase из LiquibaseAutoConfiguration, сохраняя настройки spring.liquibase.*.
+// Бин объявлен без условий: при AOT условия вычисляются на этапе сборки, а
+// datasource.migration.skip-if-unchanged должен читаться при запуске
+@Configuration
+@EnableConfigurationProperties({LiquibaseProperties.class, DatabaseMigrationProperties.class})
+public class LiquibaseConfiguration {
+
+    @Bean
+    public SpringLiquibase liquibase(DataSource dataSource,
+                                     LiquibaseProperties properties,
+                                     DatabaseMigrationProperties migrationProperties) {
+        SkipIfUnchangedSpringLiquibase liquibase = new SkipIfUnchangedSpringLiquibase();
+        liquibase.setSkipIfUnchanged(migrationProperties.isSkipIfUnchanged());
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog(properties.getChangeLog());
+        liquibase.setClearCheckSums(properties.isClearChecksums());
+        if (properties.getContexts() != null) {
+            liquibase.setContexts(String.join(",", properties.getContexts()));
+        }
+        if (properties.getLabelFilter() != null) {
+            liquibase.setLabelFilter(String.join(",", properties.getLabelFilter()));
+        }
+        liquibase.setDefaultSchema(properties.getDefaultSchema());
+        liquibase.setLiquibaseSchema(properties.getLiquibaseSchema());
+        liquibase.setLiquibaseTablespace(properties.getLiquibaseTablespace());
+        liquibase.setDatabaseChangeLogTable(properties.getDatabaseChangeLogTable());
+        liquibase.setDatabaseChangeLogLockTable(properties.getDatabaseChangeLogLockTable());
+        liquibase.setDropFirst(properties.isDropFirst());
+        liquibase.setShouldRun(properties.isEnabled());
+        liquibase.setChangeLogParameters(properties.getParameters());
+        liquibase.setRollbackFile(properties.getRollbackFile());
+        liquibase.setTestRollbackOnUpdate(properties.isTestRollbackOnUpdate());
+        liquibase.setTag(properties.getTag());
+        return liquibase;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.demo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.password-encoding")
+public class PasswordEncodingProperties {
+    // Хэширование упирается в CPU, поэтому по умолчанию по потоку на ядро
+    private int poolSize = Runtime.getRuntime().availableProcessors();
+
+    private int queueCapacity = 1000;
+
+    private RejectionPolicy rejectionPolicy = RejectionPolicy.CALLER_RUNS;
+
+    public enum RejectionPolicy {
+        // Задачу выполняет вызывающий поток: backpressure без ошибок для клиента
+        CALLER_RUNS,
+        // Запрос сразу отклоняется с 503
+        ABORT
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.demo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cache.second-level")
+public class SecondLevelCacheProperties {
+    // Ограничение на каждый регион: сущности User и результаты поиска по username
+    private long maximumSize = 10_000;
+
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
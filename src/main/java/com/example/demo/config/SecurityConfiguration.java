@@ -1,25 +1,44 @@
 package com.example.demo.config;
 
+import com.example.demo.security.JwtAuthenticationFilter;
+import com.example.demo.security.JwtLogoutHandler;
+import com.example.demo.security.JwtProperties;
+import com.example.demo.security.JwtService;
+import com.example.demo.security.LoginThrottle;
+import com.example.demo.security.LoginThrottlingFilter;
+import com.example.demo.security.LoginThrottlingProperties;
+import com.example.demo.security.TimedPasswordEncoder;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.logout.HttpStatusReturningLogoutSuccessHandler;
 
 @RequiredArgsConstructor
 @Configuration
 @EnableMethodSecurity(securedEnabled = true)
+@EnableConfigurationProperties({JwtProperties.class, PasswordEncodingProperties.class, LoginThrottlingProperties.class})
 public class SecurityConfiguration {
     private final AuthenticationSuccessHandler successHandler;
+    private final JwtService jwtService;
+    private final LoginThrottlingProperties loginThrottlingProperties;
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, MeterRegistry meterRegistry) throws Exception {
         // Настройка правил авторизации
         http
                 .csrf(AbstractHttpConfigurer::disable)
@@ -33,11 +52,33 @@ public class SecurityConfiguration {
                         .frameOptions(HeadersConfigurer.FrameOptionsConfig::sameOrigin) // Разрешение фреймов для H2 Console
                 );
 
+        if (loginThrottlingProperties.isEnabled()) {
+            LoginThrottle loginThrottle = new LoginThrottle(loginThrottlingProperties, Ticker.systemTicker());
+            http.addFilterBefore(new LoginThrottlingFilter(loginThrottle, meterRegistry),
+                    UsernamePasswordAuthenticationFilter.class);
+        }
+
+        if (jwtService.isEnabled()) {
+            // Stateless-режим: сессии не создаются, каждый запрос аутентифицируется по Bearer-токену,
+            // а /logout отзывает переданный токен и отвечает 200 вместо редиректа
+            http
+                    .sessionManagement(session -> session
+                            .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                    .exceptionHandling(exceptions -> exceptions
+                            .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                    .logout(logout -> logout
+                            .addLogoutHandler(new JwtLogoutHandler(jwtService))
+                            .logoutSuccessHandler(new HttpStatusReturningLogoutSuccessHandler()))
+                    .addFilterBefore(new JwtAuthenticationFilter(jwtService), UsernamePasswordAuthenticationFilter.class);
+        }
+
         return http.build();
     }
 
+    // createDelegatingPasswordEncoder кодирует новые пароли в bcrypt
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(PasswordEncoderFactories.createDelegatingPasswordEncoder(),
+                "bcrypt", meterRegistry);
     }
 }
@@ -0,0 +1,58 @@
+package com.example.demo.config;
+
+import com.example.demo.datasource.RequestSqlStatistics;
+import com.example.demo.datasource.SqlStatementBudgetFilter;
+import com.example.demo.datasource.SqlStatementBudgetProperties;
+import com.example.demo.datasource.SqlStatisticsSessionListener;
+import com.example.demo.datasource.SqlStatisticsStatementInspector;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+// Счётчик SQL на HTTP-запрос вместо spring.jpa.show-sql: StatementInspector считает запросы,
+// SessionEventListener — время их выполнения
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.statement-budget", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(SqlStatementBudgetProperties.class)
+public class SqlStatisticsConfiguration {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatisticsCustomizer() {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatisticsStatementInspector());
+            hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                    SqlStatisticsSessionListener.class.getName());
+        };
+    }
+
+    @Bean
+    public SqlStatementBudgetFilter sqlStatementBudgetFilter(SqlStatementBudgetProperties properties,
+                                                             MeterRegistry meterRegistry) {
+        return new SqlStatementBudgetFilter(properties, meterRegistry);
+    }
+
+    // Boot применяет TaskDecorator к applicationTaskExecutor: запросы, которые UserService
+    // выполняет там после хэширования пароля, засчитываются исходному HTTP-запросу
+    @Bean
+    public TaskDecorator sqlStatisticsTaskDecorator() {
+        return task -> {
+            RequestSqlStatistics statistics = RequestSqlStatistics.current();
+            if (statistics == null) {
+                return task;
+            }
+            return () -> {
+                RequestSqlStatistics previous = RequestSqlStatistics.bind(statistics);
+                try {
+                    task.run();
+                } finally {
+                    RequestSqlStatistics.restore(previous);
+                }
+            };
+        };
+    }
+}
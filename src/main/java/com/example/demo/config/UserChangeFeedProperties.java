@@ -0,0 +1,19 @@
+package com.example.demo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "users.change-feed")
+public class UserChangeFeedProperties {
+    // Сколько последних событий хранится для догонки по Last-Event-ID; подписчик,
+    // отставший больше чем на буфер, отключается и переподключается сам
+    private int replayBufferSize = 1024;
+
+    // После таймаута клиент EventSource переподключается с Last-Event-ID
+    private Duration timeout = Duration.ofMinutes(30);
+}
@@ -1,16 +1,34 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.CursorPage;
 import com.example.demo.dto.UserCreateDto;
 import com.example.demo.dto.UserEditDto;
+import com.example.demo.dto.UserImportReport;
 import com.example.demo.dto.UserReadDto;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.service.UserChangeFeed;
+import com.example.demo.service.UserExportService;
+import com.example.demo.service.UserImportService;
 import com.example.demo.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 
 @RestController
@@ -19,27 +37,96 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final UserExportService userExportService;
+    private final UserChangeFeed userChangeFeed;
 
     @PostMapping
     @Secured("ADMIN")
-    public ResponseEntity<UserReadDto> save(@RequestBody UserCreateDto userCreateDto) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(userService.save(userCreateDto));
+    public CompletableFuture<ResponseEntity<UserReadDto>> save(@RequestBody UserCreateDto userCreateDto) {
+        return userService.save(userCreateDto)
+                .thenApply(userReadDto -> ResponseEntity.status(HttpStatus.CREATED).body(userReadDto));
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Secured("ADMIN")
+    public ResponseEntity<UserImportReport> importUsers(@RequestBody List<UserCreateDto> users) {
+        return ResponseEntity.status(HttpStatus.OK).body(userImportService.importUsers(users.iterator()));
+    }
+
+    // NDJSON читается потоково: в памяти держится только текущая пачка, а не весь запрос.
+    // Битые строки попадают в отчёт как ошибки, а не обрывают импорт с уже закоммиченными пачками
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Secured("ADMIN")
+    public ResponseEntity<UserImportReport> importUsersNdjson(InputStream body) {
+        return ResponseEntity.status(HttpStatus.OK).body(userImportService.importNdjson(body));
     }
 
+    // user читается один раз (обычно из кэша второго уровня), If-None-Match сверяется с его версией:
+    // на 304 тело не сериализуется. Vary выставляется до проверки, чтобы кэши получили его и с 304
     @GetMapping("/{id}")
-    public ResponseEntity<UserReadDto> findById(@PathVariable Long id) {
-        return ResponseEntity.status(HttpStatus.OK).body(userService.findById(id));
+    public ResponseEntity<UserReadDto> findById(@PathVariable Long id, WebRequest request,
+                                                HttpServletResponse response) {
+        UserReadDto userReadDto = userService.findById(id);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (request.checkNotModified(toETag(userReadDto.getVersion()))) {
+            return null;
+        }
+        return ResponseEntity.status(HttpStatus.OK)
+                .eTag(toETag(userReadDto.getVersion()))
+                .body(userReadDto);
     }
 
+    // ETag страницы считается по id и версиям её элементов; на совпадение тело не сериализуется
     @GetMapping
     public ResponseEntity<Page<UserReadDto>> findAll(Pageable pageable) {
-        return ResponseEntity.status(HttpStatus.OK).body(userService.findAll(pageable));
+        Page<UserReadDto> page = userService.findAll(pageable);
+        return ResponseEntity.status(HttpStatus.OK).eTag(toETag(page)).varyBy(HttpHeaders.ACCEPT).body(page);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<UserReadDto>> search(@RequestParam String prefix,
+                                                    @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.status(HttpStatus.OK).body(userService.searchByUsernamePrefix(prefix, limit));
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<UserReadDto>> findAllAfter(@RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.status(HttpStatus.OK).body(userService.findAllAfter(cursor, size));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Secured("ADMIN")
+    public ResponseEntity<StreamingResponseBody> export() {
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(userExportService::exportAll);
+    }
+
+    // Поток created/updated/deleted; EventSource при переподключении сам присылает Last-Event-ID
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return userChangeFeed.subscribe(lastEventId);
     }
 
     @PutMapping("/{id}")
     @Secured("ADMIN")
-    public ResponseEntity<UserReadDto> update(@PathVariable Long id, @RequestBody UserEditDto userEditDto) {
-        return ResponseEntity.status(HttpStatus.OK).body(userService.update(id, userEditDto));
+    public CompletableFuture<ResponseEntity<UserReadDto>> update(@PathVariable Long id,
+                                                                 @RequestBody UserEditDto userEditDto,
+                                                                 @RequestHeader(value = HttpHeaders.IF_MATCH,
+                                                                         required = false) String ifMatch) {
+        return userService.update(id, userEditDto, fromETag(ifMatch)).thenApply(this::updatedResponse);
+    }
+
+    // Меняются только переданные поля; без password хэширование не выполняется
+    @PatchMapping("/{id}")
+    @Secured("ADMIN")
+    public CompletableFuture<ResponseEntity<UserReadDto>> patch(@PathVariable Long id,
+                                                                @RequestBody UserEditDto userEditDto,
+                                                                @RequestHeader(value = HttpHeaders.IF_MATCH,
+                                                                        required = false) String ifMatch) {
+        return userService.update(id, userEditDto, fromETag(ifMatch)).thenApply(this::updatedResponse);
     }
 
     @DeleteMapping("/{id}")
@@ -48,4 +135,38 @@ public class UserController {
         userService.delete(id);
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
+
+    private ResponseEntity<UserReadDto> updatedResponse(UserReadDto userReadDto) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .eTag(toETag(userReadDto.getVersion()))
+                .body(userReadDto);
+    }
+
+    // ETag слабый: одна и та же версия отдаётся побайтно разными телами в JSON, CBOR и Smile
+    private String toETag(Long version) {
+        return "W/\"" + version + "\"";
+    }
+
+    private String toETag(Page<UserReadDto> page) {
+        StringBuilder state = new StringBuilder()
+                .append(page.getNumber()).append(':')
+                .append(page.getSize()).append(':')
+                .append(page.getTotalElements());
+        for (UserReadDto user : page.getContent()) {
+            state.append(';').append(user.getId()).append(':').append(user.getVersion());
+        }
+        return "W/\"" + DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private Long fromETag(String ifMatch) {
+        if (ifMatch == null || "*".equals(ifMatch)) {
+            return null;
+        }
+        try {
+            String tag = ifMatch.startsWith("W/") ? ifMatch.substring(2) : ifMatch;
+            return Long.valueOf(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid If-Match: " + ifMatch);
+        }
+    }
 }
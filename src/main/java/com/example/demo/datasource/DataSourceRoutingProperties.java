@@ -0,0 +1,20 @@
+package com.example.demo.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datasource.routing")
+public class DataSourceRoutingProperties {
+    // Чтение в read-only транзакциях уходит на реплику, всё остальное — на primary
+    private boolean enabled = false;
+
+    // Сколько после своей записи user читает с primary, пока реплика догоняет
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    private long maxTrackedUsers = 100_000;
+}
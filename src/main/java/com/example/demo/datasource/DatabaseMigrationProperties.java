@@ -0,0 +1,13 @@
+package com.example.demo.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datasource.migration")
+public class DatabaseMigrationProperties {
+    // Не запускать Liquibase update, если в DATABASECHANGELOG ровно те changeset и checksum, что в changelog
+    private boolean skipIfUnchanged = false;
+}
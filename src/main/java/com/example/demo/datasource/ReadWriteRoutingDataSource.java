@@ -0,0 +1,56 @@
+package com.example.demo.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Locale;
+import java.util.Map;
+
+// Выбирает пул при получении соединения. Работает только за LazyConnectionDataSourceProxy:
+// признак read-only транзакции выставляется уже после того, как транзакция запросила соединение
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    public enum Target { PRIMARY, REPLICA }
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final Counter primaryReadWrite;
+    private final Counter primaryReadYourWrites;
+    private final Counter replicaReadOnly;
+
+    public ReadWriteRoutingDataSource(DataSource primary,
+                                      DataSource replica,
+                                      ReadYourWritesTracker readYourWritesTracker,
+                                      MeterRegistry meterRegistry) {
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.primaryReadWrite = routingCounter(meterRegistry, Target.PRIMARY, "read-write");
+        this.primaryReadYourWrites = routingCounter(meterRegistry, Target.PRIMARY, "read-your-writes");
+        this.replicaReadOnly = routingCounter(meterRegistry, Target.REPLICA, "read-only");
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryReadWrite.increment();
+            return Target.PRIMARY;
+        }
+        if (readYourWritesTracker.isWithinWindow()) {
+            primaryReadYourWrites.increment();
+            return Target.PRIMARY;
+        }
+        replicaReadOnly.increment();
+        return Target.REPLICA;
+    }
+
+    private static Counter routingCounter(MeterRegistry meterRegistry, Target target, String reason) {
+        return Counter.builder("datasource.routing")
+                .description("Connections handed out by the read/write routing datasource")
+                .tag("target", target.name().toLowerCase(Locale.ROOT))
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+// Запоминает, кто недавно писал: его чтение в пределах окна идёт на primary, а не на отстающую реплику
+@Component
+public class ReadYourWritesTracker {
+    private final boolean enabled;
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(DataSourceRoutingProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedUsers())
+                .expireAfterWrite(properties.getReadYourWritesWindow())
+                .build();
+    }
+
+    // Вызывается на потоке запроса, где есть SecurityContext
+    public void recordWrite() {
+        String username = currentUsername();
+        if (enabled && username != null) {
+            recentWriters.put(username, Boolean.TRUE);
+        }
+    }
+
+    public boolean isWithinWindow() {
+        String username = currentUsername();
+        return username != null && recentWriters.getIfPresent(username) != null;
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.demo.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// SQL-запросы и время их выполнения в рамках одного HTTP-запроса.
+// Привязывается к потоку фильтром, а в applicationTaskExecutor переносится TaskDecorator-ом,
+// поэтому счётчики потокобезопасны
+public class RequestSqlStatistics {
+    private static final ThreadLocal<RequestSqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private final LongAdder statementCount = new LongAdder();
+    private final LongAdder executionNanos = new LongAdder();
+    private final Map<String, LongAdder> countsBySql = new ConcurrentHashMap<>();
+
+    public static RequestSqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    // Возвращает прежнюю привязку потока, её нужно вернуть через restore
+    public static RequestSqlStatistics bind(RequestSqlStatistics statistics) {
+        RequestSqlStatistics previous = CURRENT.get();
+        CURRENT.set(statistics);
+        return previous;
+    }
+
+    public static void restore(RequestSqlStatistics previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public void recordStatement(String sql) {
+        statementCount.increment();
+        countsBySql.computeIfAbsent(sql, key -> new LongAdder()).increment();
+    }
+
+    public void recordExecution(long nanos) {
+        executionNanos.add(nanos);
+    }
+
+    public long getStatementCount() {
+        return statementCount.sum();
+    }
+
+    public long getExecutionNanos() {
+        return executionNanos.sum();
+    }
+
+    // SQL, выполненные больше threshold раз: типичный след N+1
+    public Map<String, Long> getRepeatedStatements(int threshold) {
+        return countsBySql.entrySet().stream()
+                .filter(entry -> entry.getValue().sum() > threshold)
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum()));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.datasource;
+
+import liquibase.ChecksumVersion;
+import liquibase.Liquibase;
+import liquibase.Scope;
+import liquibase.changelog.ChangeLogHistoryService;
+import liquibase.changelog.ChangeLogHistoryServiceFactory;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.RanChangeSet;
+import liquibase.database.Database;
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashSet;
+import java.util.Set;
+
+// Если набор применённых changeset (id, author, файл, checksum) совпадает с changelog, update не выполняется:
+// нет блокировки DATABASECHANGELOGLOCK, валидации и прохода по changelog.
+// При любом расхождении, runAlways или отсутствии таблицы — обычный update
+@Slf4j
+public class SkipIfUnchangedSpringLiquibase extends SpringLiquibase {
+    @Setter
+    private boolean skipIfUnchanged;
+
+    @Override
+    protected void performUpdate(Liquibase liquibase) throws LiquibaseException {
+        if (skipIfUnchanged && isUpToDate(liquibase)) {
+            log.info("Liquibase changelog {} is unchanged, skipping update", getChangeLog());
+            return;
+        }
+        super.performUpdate(liquibase);
+    }
+
+    private boolean isUpToDate(Liquibase liquibase) throws LiquibaseException {
+        Set<String> expected = new HashSet<>();
+        for (ChangeSet changeSet : liquibase.getDatabaseChangeLog().getChangeSets()) {
+            if (changeSet.isAlwaysRun()) {
+                return false;
+            }
+            expected.add(key(changeSet.getId(), changeSet.getAuthor(), changeSet.getFilePath(),
+                    changeSet.generateCheckSum(ChecksumVersion.latest()).toString()));
+        }
+        Set<String> applied = appliedChangeSets(liquibase.getDatabase());
+        return expected.equals(applied);
+    }
+
+    // История читается сервисом самого Liquibase: он проверяет наличие таблицы по метаданным, а не упавшим
+    // запросом, который на базах с транзакционным DDL сорвал бы транзакцию последующего update
+    private static Set<String> appliedChangeSets(Database database) throws LiquibaseException {
+        ChangeLogHistoryService historyService = Scope.getCurrentScope()
+                .getSingleton(ChangeLogHistoryServiceFactory.class)
+                .getChangeLogService(database);
+        Set<String> applied = new HashSet<>();
+        try {
+            for (RanChangeSet ranChangeSet : historyService.getRanChangeSets()) {
+                applied.add(key(ranChangeSet.getId(), ranChangeSet.getAuthor(), ranChangeSet.getChangeLog(),
+                        String.valueOf(ranChangeSet.getLastCheckSum())));
+            }
+        } finally {
+            // Update перечитает историю сам, уже под блокировкой
+            historyService.reset();
+        }
+        return applied;
+    }
+
+    private static String key(String id, String author, String filePath, String checksum) {
+        return id + "::" + author + "::" + filePath + "::" + checksum;
+    }
+}
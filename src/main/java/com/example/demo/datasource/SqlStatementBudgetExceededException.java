@@ -0,0 +1,7 @@
+package com.example.demo.datasource;
+
+public class SqlStatementBudgetExceededException extends RuntimeException {
+    public SqlStatementBudgetExceededException(String message) {
+        super(message);
+    }
+}
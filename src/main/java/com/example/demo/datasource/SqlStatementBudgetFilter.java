@@ -0,0 +1,110 @@
+package com.example.demo.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Считает SQL и время базы на HTTP-запрос, пишет метрики sql.request.* с тегом handler
+// и сверяет число запросов с бюджетом метода контроллера.
+// Асинхронный запрос проходит через фильтр дважды, итог подводится на последнем dispatch
+@Slf4j
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+    private static final String STATISTICS_ATTRIBUTE = SqlStatementBudgetFilter.class.getName() + ".statistics";
+    private static final String NO_HANDLER = "none";
+
+    private final SqlStatementBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public SqlStatementBudgetFilter(SqlStatementBudgetProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestSqlStatistics statistics = (RequestSqlStatistics) request.getAttribute(STATISTICS_ATTRIBUTE);
+        if (statistics == null) {
+            statistics = new RequestSqlStatistics();
+            request.setAttribute(STATISTICS_ATTRIBUTE, statistics);
+        }
+        RequestSqlStatistics previous = RequestSqlStatistics.bind(statistics);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestSqlStatistics.restore(previous);
+        }
+        if (!request.isAsyncStarted()) {
+            complete(request, statistics);
+        }
+    }
+
+    private void complete(HttpServletRequest request, RequestSqlStatistics statistics) {
+        String handler = handlerName(request);
+        long statementCount = statistics.getStatementCount();
+        DistributionSummary.builder("sql.request.statements")
+                .description("SQL statements per HTTP request")
+                .tag("handler", handler)
+                .register(meterRegistry)
+                .record(statementCount);
+        Timer.builder("sql.request.time")
+                .description("Database execution time per HTTP request")
+                .tag("handler", handler)
+                .register(meterRegistry)
+                .record(statistics.getExecutionNanos(), TimeUnit.NANOSECONDS);
+
+        int maxStatements = properties.maxStatementsFor(handler);
+        if (NO_HANDLER.equals(handler) || maxStatements < 0) {
+            return;
+        }
+        List<String> violations = new ArrayList<>();
+        if (statementCount > maxStatements) {
+            violations.add(statementCount + " SQL statements, budget is " + maxStatements);
+        }
+        Map<String, Long> repeated = statistics.getRepeatedStatements(properties.getRepeatedStatementThreshold());
+        repeated.forEach((sql, count) -> violations.add("possible N+1, executed " + count + " times: " + sql));
+        if (violations.isEmpty()) {
+            return;
+        }
+
+        Counter.builder("sql.request.budget.exceeded")
+                .description("HTTP requests over their SQL statement budget")
+                .tag("handler", handler)
+                .register(meterRegistry)
+                .increment();
+        String message = String.format("%s %s (%s): %s", request.getMethod(), request.getRequestURI(), handler,
+                String.join("; ", violations));
+        if (properties.getAction() == SqlStatementBudgetProperties.Action.FAIL) {
+            throw new SqlStatementBudgetExceededException(message);
+        }
+        log.warn("SQL statement budget exceeded: {}", message);
+    }
+
+    private static String handlerName(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handlerMethod) {
+            return handlerMethod.getBeanType().getSimpleName() + "#" + handlerMethod.getMethod().getName();
+        }
+        return NO_HANDLER;
+    }
+}
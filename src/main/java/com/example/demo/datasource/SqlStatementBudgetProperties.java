@@ -0,0 +1,41 @@
+package com.example.demo.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datasource.statement-budget")
+public class SqlStatementBudgetProperties {
+    // Подсчёт SQL-запросов и времени базы на каждый HTTP-запрос
+    private boolean enabled = true;
+
+    private Action action = Action.LOG;
+
+    // Бюджет для методов контроллеров, которых нет в endpoints
+    private int defaultMaxStatements = 10;
+
+    // Ключ — метод контроллера в виде UserController#delete; отрицательное значение отключает проверку
+    private Map<String, Integer> endpoints = new HashMap<>();
+
+    // Одинаковый SQL больше этого числа раз за запрос считается вероятным N+1
+    private int repeatedStatementThreshold = 5;
+
+    // Заголовки X-Sql-Statements и X-Sql-Time-Millis в ответе, для dev-профиля
+    private boolean responseHeaders = false;
+
+    public int maxStatementsFor(String handler) {
+        return endpoints.getOrDefault(handler, defaultMaxStatements);
+    }
+
+    public enum Action {
+        // Превышение пишется в лог и в метрику
+        LOG,
+        // Запрос завершается исключением: для тестов, чтобы регрессия роняла сборку
+        FAIL
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.datasource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.concurrent.TimeUnit;
+
+// Заголовки выставляются перед записью тела: к этому моменту обработчик уже отработал,
+// а после записи ответ может быть закоммичен
+@ControllerAdvice
+@ConditionalOnProperty(prefix = "datasource.statement-budget", name = "response-headers", havingValue = "true")
+public class SqlStatisticsResponseHeaderAdvice implements ResponseBodyAdvice<Object> {
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String TIME_HEADER = "X-Sql-Time-Millis";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body,
+                                  MethodParameter returnType,
+                                  MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request,
+                                  ServerHttpResponse response) {
+        RequestSqlStatistics statistics = RequestSqlStatistics.current();
+        if (statistics != null) {
+            response.getHeaders().set(STATEMENTS_HEADER, Long.toString(statistics.getStatementCount()));
+            response.getHeaders().set(TIME_HEADER,
+                    Long.toString(TimeUnit.NANOSECONDS.toMillis(statistics.getExecutionNanos())));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.datasource;
+
+import org.hibernate.SessionEventListener;
+
+// Время выполнения statement и batch. Hibernate создаёт экземпляр на каждую сессию
+// (hibernate.session.events.auto), а сессия используется одним потоком
+public class SqlStatisticsSessionListener implements SessionEventListener {
+    private long startedAt;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        startTiming();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        stopTiming();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        startTiming();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        stopTiming();
+    }
+
+    private void startTiming() {
+        startedAt = RequestSqlStatistics.current() != null ? System.nanoTime() : 0;
+    }
+
+    private void stopTiming() {
+        RequestSqlStatistics statistics = RequestSqlStatistics.current();
+        if (statistics != null && startedAt != 0) {
+            statistics.recordExecution(System.nanoTime() - startedAt);
+        }
+        startedAt = 0;
+    }
+}
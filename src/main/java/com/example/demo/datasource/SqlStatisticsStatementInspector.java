@@ -0,0 +1,16 @@
+package com.example.demo.datasource;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Hibernate вызывает inspect на подготовку каждого statement; SQL не меняется
+public class SqlStatisticsStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestSqlStatistics statistics = RequestSqlStatistics.current();
+        if (statistics != null) {
+            statistics.recordStatement(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserChangeEvent {
+    // Монотонно растущий номер события, он же id в SSE и значение Last-Event-ID при переподключении
+    private long sequence;
+
+    private Type type;
+
+    private Long id;
+
+    private String username;
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserImportResult {
+    // Порядковый номер строки во входных данных, с нуля
+    private int index;
+
+    private String username;
+
+    private boolean created;
+
+    private String error;
+}
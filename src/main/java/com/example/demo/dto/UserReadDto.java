@@ -1,5 +1,6 @@
 package com.example.demo.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -15,4 +16,8 @@ public class UserReadDto {
     private Long id;
 
     private String username;
+
+    // Отдаётся клиенту только в заголовке ETag
+    @JsonIgnore
+    private Long version;
 }
@@ -1,36 +1,54 @@
 package com.example.demo.entity;
 
+import com.example.demo.config.CacheConfiguration;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "users")
+// READ_WRITE: запись в кэше блокируется на время транзакции и обновляется после коммита,
+// а массовый UPDATE (updatePartially) сбрасывает весь регион
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfiguration.USERS_REGION)
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // pooled-lo: одно обращение к users_seq выдаёт блок из allocationSize id, вставки идут JDBC batch
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     private String username;
 
+    // Вычисляемая колонка lower(username) под индексом users_username_lower_idx, только для поиска
+    @Column(insertable = false, updatable = false)
+    private String usernameLower;
+
     private String password;
 
     @Enumerated(EnumType.STRING)
     private Role role;
 
     private LocalDateTime createdAt;
+
+    @Version
+    private Long version;
 }
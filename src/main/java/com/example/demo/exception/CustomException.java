@@ -2,12 +2,18 @@ package com.example.demo.exception;
 
 import lombok.Getter;
 
+// Бизнес-ошибки ожидаемы и целиком описываются errorCode и сообщением, поэтому стек не собирается:
+// заполнение стека — самая дорогая часть исключения, а сканеры несуществующих id вызывают их потоком
 @Getter
 public abstract class CustomException extends RuntimeException {
     private final String errorCode;
 
     protected CustomException(String message, String errorCode) {
-        super(message);
+        this(message, errorCode, false);
+    }
+
+    protected CustomException(String message, String errorCode, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
         this.errorCode = errorCode;
     }
 }
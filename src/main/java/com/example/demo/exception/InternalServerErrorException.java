@@ -1,7 +1,8 @@
 package com.example.demo.exception;
 
+// Сигнал ошибки в самом приложении: стек нужен для разбора, поэтому собирается
 public class InternalServerErrorException extends CustomException{
     public InternalServerErrorException(String message) {
-        super(message, "INTERNAL_SERVER_ERROR");
+        super(message, "INTERNAL_SERVER_ERROR", true);
     }
 }
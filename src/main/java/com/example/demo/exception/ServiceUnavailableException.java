@@ -0,0 +1,7 @@
+package com.example.demo.exception;
+
+public class ServiceUnavailableException extends CustomException {
+    public ServiceUnavailableException(String message) {
+        super(message, "SERVICE_UNAVAILABLE");
+    }
+}
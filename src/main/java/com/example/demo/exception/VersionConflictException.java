@@ -0,0 +1,7 @@
+package com.example.demo.exception;
+
+public class VersionConflictException extends CustomException {
+    public VersionConflictException(String message) {
+        super(message, "VERSION_CONFLICT");
+    }
+}
@@ -1,22 +1,33 @@
 package com.example.demo.exception_handler;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.demo.security.JwtService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 public class CustomAuthenticationSuccessHandler implements AuthenticationSuccessHandler {
-    private final ObjectMapper objectMapper;
+    private final HttpMessageConverters httpMessageConverters;
+    private final JwtService jwtService;
 
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request,
@@ -30,12 +41,43 @@ public class CustomAuthenticationSuccessHandler implements AuthenticationSuccess
                 .role(authentication.getAuthorities().stream()
                         .map(GrantedAuthority::getAuthority)
                         .collect(Collectors.toList()))
+                .token(jwtService.isEnabled() ? jwtService.generateToken(authentication) : null)
                 .build();
 
         // Настраиваем ответ
         response.setStatus(HttpServletResponse.SC_OK);
-        response.setContentType("application/json");
-        response.getWriter().write(objectMapper.writeValueAsString(loginResponse));
-        response.getWriter().flush();
+        writeNegotiated(loginResponse, request, response);
+    }
+
+    // Тот же выбор формата по Accept, что и у контроллеров: JSON, CBOR или Smile.
+    // Вход уже прошёл, поэтому на неразбираемый Accept отвечаем JSON, а не ошибкой
+    @SuppressWarnings("unchecked")
+    private void writeNegotiated(Object body, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        List<MediaType> acceptedMediaTypes;
+        try {
+            acceptedMediaTypes = new ArrayList<>(MediaType.parseMediaTypes(request.getHeader(HttpHeaders.ACCEPT)));
+        } catch (InvalidMediaTypeException e) {
+            acceptedMediaTypes = new ArrayList<>();
+        }
+        if (acceptedMediaTypes.isEmpty()) {
+            acceptedMediaTypes.add(MediaType.APPLICATION_JSON);
+        }
+        // q=0 означает «не принимаю». Остальные — сначала по q, при равном q более конкретный тип:
+        // сортировка устойчивая и сохраняет порядок sortBySpecificity
+        acceptedMediaTypes.removeIf(mediaType -> mediaType.getQualityValue() == 0);
+        MimeTypeUtils.sortBySpecificity(acceptedMediaTypes);
+        acceptedMediaTypes.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType mediaType : acceptedMediaTypes) {
+            for (HttpMessageConverter<?> converter : httpMessageConverters) {
+                if (converter.canWrite(body.getClass(), mediaType)) {
+                    MediaType contentType = mediaType.isConcrete() ? mediaType.removeQualityValue() : null;
+                    ((HttpMessageConverter<Object>) converter)
+                            .write(body, contentType, new ServletServerHttpResponse(response));
+                    return;
+                }
+            }
+        }
+        response.sendError(HttpServletResponse.SC_NOT_ACCEPTABLE);
     }
 }
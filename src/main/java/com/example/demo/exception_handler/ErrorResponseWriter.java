@@ -0,0 +1,125 @@
+package com.example.demo.exception_handler;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// JSON тела ошибки собирается из заранее сериализованных фрагментов, без ErrorResponse и рефлексии Jackson.
+// Результат совпадает с сериализацией ErrorResponse: те же поля в том же порядке, null-поля опускаются,
+// timestamp в ISO-8601 с точностью до миллисекунды и форматируется не чаще раза в миллисекунду
+public class ErrorResponseWriter {
+    private static final byte[] TIMESTAMP_FIELD = ascii("{\"timestamp\":\"");
+    private static final byte[] MESSAGE_FIELD = ascii(",\"message\":\"");
+    private static final byte[] PATH_FIELD = ascii(",\"path\":\"");
+    private static final byte[] END = ascii("\"}");
+
+    private final Clock clock;
+    // ","status":404,"error":"USER_NOT_FOUND" по коду ошибки: у каждого кода свой постоянный статус
+    private final ConcurrentMap<String, StatusFragment> statusFragments = new ConcurrentHashMap<>();
+    private volatile Timestamp timestamp = new Timestamp(Long.MIN_VALUE, null);
+
+    public ErrorResponseWriter() {
+        this(Clock.systemDefaultZone());
+    }
+
+    ErrorResponseWriter(Clock clock) {
+        this.clock = clock;
+    }
+
+    // Шаблон только для JSON: если первым в Accept стоит другой формат (CBOR, Smile),
+    // ответ собирается из ErrorResponse обычными конвертерами
+    public boolean isJsonAccepted(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isEmpty() || MediaType.ALL_VALUE.equals(accept)) {
+            return true;
+        }
+        List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+        return mediaTypes.isEmpty() || mediaTypes.get(0).isCompatibleWith(MediaType.APPLICATION_JSON);
+    }
+
+    public byte[] write(HttpStatus status, String error, String message, String path) {
+        byte[] timestampValue = timestamp();
+        byte[] statusFragment = statusFragment(status, error);
+        byte[] messageValue = message == null ? null : JsonStringEncoder.getInstance().quoteAsUTF8(message);
+        byte[] pathValue = JsonStringEncoder.getInstance().quoteAsUTF8(path);
+
+        int length = TIMESTAMP_FIELD.length + timestampValue.length + statusFragment.length
+                + PATH_FIELD.length + pathValue.length + END.length;
+        if (messageValue != null) {
+            length += MESSAGE_FIELD.length + messageValue.length + 1;
+        }
+        byte[] body = new byte[length];
+        int offset = append(body, 0, TIMESTAMP_FIELD);
+        offset = append(body, offset, timestampValue);
+        offset = append(body, offset, statusFragment);
+        if (messageValue != null) {
+            offset = append(body, offset, MESSAGE_FIELD);
+            offset = append(body, offset, messageValue);
+            body[offset++] = '"';
+        }
+        offset = append(body, offset, PATH_FIELD);
+        offset = append(body, offset, pathValue);
+        append(body, offset, END);
+        return body;
+    }
+
+    public LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    private byte[] timestamp() {
+        long millis = clock.millis();
+        Timestamp current = timestamp;
+        if (current.epochMilli() != millis) {
+            LocalDateTime dateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), clock.getZone());
+            current = new Timestamp(millis, ascii(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime)));
+            timestamp = current;
+        }
+        return current.text();
+    }
+
+    private byte[] statusFragment(HttpStatus status, String error) {
+        if (error == null) {
+            return serializeStatus(status, null);
+        }
+        StatusFragment cached = statusFragments.computeIfAbsent(error,
+                key -> new StatusFragment(status, serializeStatus(status, key)));
+        return cached.status() == status ? cached.bytes() : serializeStatus(status, error);
+    }
+
+    private static byte[] serializeStatus(HttpStatus status, String error) {
+        StringBuilder fragment = new StringBuilder("\",\"status\":").append(status.value());
+        if (error != null) {
+            fragment.append(",\"error\":\"");
+            JsonStringEncoder.getInstance().quoteAsString(error, fragment);
+            fragment.append('"');
+        }
+        return fragment.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int append(byte[] target, int offset, byte[] source) {
+        System.arraycopy(source, 0, target, offset, source.length);
+        return offset + source.length;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private record Timestamp(long epochMilli, byte[] text) {
+    }
+
+    private record StatusFragment(HttpStatus status, byte[] bytes) {
+    }
+}
@@ -1,44 +1,101 @@
 package com.example.demo.exception_handler;
 
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.exception.CustomException;
+import com.example.demo.exception.InternalServerErrorException;
+import com.example.demo.exception.InvalidPasswordException;
+import com.example.demo.exception.ServiceUnavailableException;
 import com.example.demo.exception.UserNotFoundException;
 import com.example.demo.exception.UsernameAlreadyExistsException;
+import com.example.demo.exception.VersionConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
-import org.springframework.web.context.request.ServletWebRequest;
-import org.springframework.web.context.request.WebRequest;
 
-import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+@Slf4j
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
+    private final MeterRegistry meterRegistry;
+    private final ErrorResponseWriter errorResponseWriter = new ErrorResponseWriter();
+    // Счётчик на класс исключения создаётся один раз, а не ищется в реестре при каждой ошибке
+    private final ConcurrentMap<Class<?>, Counter> exceptionCounters = new ConcurrentHashMap<>();
+
     @ExceptionHandler(UserNotFoundException.class)
-    public ResponseEntity<ErrorResponse> handleUserNotFoundException(UserNotFoundException e, WebRequest request) {
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .timestamp(LocalDateTime.now())
-                .status(HttpStatus.NOT_FOUND.value())
-                .error(e.getErrorCode())
-                .message(e.getMessage())
-                .path(extractPathFromWebRequest(request))
-                .build();
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+    public ResponseEntity<Object> handleUserNotFoundException(UserNotFoundException e, HttpServletRequest request) {
+        return errorResponse(HttpStatus.NOT_FOUND, e, request);
     }
 
     @ExceptionHandler(UsernameAlreadyExistsException.class)
-    public ResponseEntity<ErrorResponse> handleUsernameAlreadyExistsException(UsernameAlreadyExistsException e,
-                                                                              WebRequest request) {
+    public ResponseEntity<Object> handleUsernameAlreadyExistsException(UsernameAlreadyExistsException e,
+                                                                       HttpServletRequest request) {
+        return errorResponse(HttpStatus.CONFLICT, e, request);
+    }
+
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<Object> handleBadRequestException(BadRequestException e, HttpServletRequest request) {
+        return errorResponse(HttpStatus.BAD_REQUEST, e, request);
+    }
+
+    // Пароль не прошёл проверку правил: ошибка во входных данных, как и BadRequestException
+    @ExceptionHandler(InvalidPasswordException.class)
+    public ResponseEntity<Object> handleInvalidPasswordException(InvalidPasswordException e,
+                                                                 HttpServletRequest request) {
+        return errorResponse(HttpStatus.BAD_REQUEST, e, request);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Object> handleServiceUnavailableException(ServiceUnavailableException e,
+                                                                    HttpServletRequest request) {
+        return errorResponse(HttpStatus.SERVICE_UNAVAILABLE, e, request);
+    }
+
+    @ExceptionHandler(VersionConflictException.class)
+    public ResponseEntity<Object> handleVersionConflictException(VersionConflictException e,
+                                                                 HttpServletRequest request) {
+        return errorResponse(HttpStatus.PRECONDITION_FAILED, e, request);
+    }
+
+    @ExceptionHandler(InternalServerErrorException.class)
+    public ResponseEntity<Object> handleInternalServerErrorException(InternalServerErrorException e,
+                                                                     HttpServletRequest request) {
+        log.error("Internal server error on {}", request.getRequestURI(), e);
+        return errorResponse(HttpStatus.INTERNAL_SERVER_ERROR, e, request);
+    }
+
+    // JSON-тело пишется шаблоном ErrorResponseWriter; ErrorResponse и конвертеры нужны только для CBOR и Smile
+    private ResponseEntity<Object> errorResponse(HttpStatus status, CustomException e, HttpServletRequest request) {
+        countHandledException(e);
+        String path = request.getRequestURI();
+        if (errorResponseWriter.isJsonAccepted(request)) {
+            return ResponseEntity.status(status)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(errorResponseWriter.write(status, e.getErrorCode(), e.getMessage(), path));
+        }
         ErrorResponse errorResponse = ErrorResponse.builder()
-                .timestamp(LocalDateTime.now())
-                .status(HttpStatus.CONFLICT.value())
+                .timestamp(errorResponseWriter.now())
+                .status(status.value())
                 .error(e.getErrorCode())
                 .message(e.getMessage())
-                .path(extractPathFromWebRequest(request))
+                .path(path)
                 .build();
-        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+        return ResponseEntity.status(status).body(errorResponse);
     }
 
-    private String extractPathFromWebRequest(WebRequest request) {
-        return ((ServletWebRequest) request).getRequest().getRequestURI();
+    // Счётчик api.exceptions с тегами exception и error по каждому обработанному CustomException
+    private void countHandledException(CustomException e) {
+        exceptionCounters.computeIfAbsent(e.getClass(), exceptionClass -> meterRegistry.counter("api.exceptions",
+                "exception", exceptionClass.getSimpleName(),
+                "error", e.getErrorCode())).increment();
     }
 }
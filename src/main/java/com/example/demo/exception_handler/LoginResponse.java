@@ -22,4 +22,6 @@ public class LoginResponse {
     private String username;
 
     private List<String> role;
+
+    private String token;
 }
@@ -1,12 +1,85 @@
 package com.example.demo.repository;
 
+import com.example.demo.config.CacheConfiguration;
+import com.example.demo.dto.UserReadDto;
+import com.example.demo.entity.Role;
 import com.example.demo.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
+// Объявленные здесь запросы выполняются в read-only транзакции, как и унаследованные из SimpleJpaRepository
 @Repository
+@Transactional(readOnly = true)
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Кэш запроса хранит только id, сама сущность берётся из региона users.
+    // Любая запись в таблицу users делает закэшированные результаты устаревшими
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfiguration.USERS_BY_USERNAME_REGION)
+    })
     Optional<User> findUserByUsername(String username);
+
+    @Query("select u.username from User u where u.username in :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    // Методы ниже читают только колонки ответа в UserReadDto: сущности не попадают
+    // в persistence context, поэтому нет снапшотов и dirty checking
+
+    @Query("select new com.example.demo.dto.UserReadDto(u.id, u.username, u.version) from User u where u.id = :id")
+    Optional<UserReadDto> findReadDtoById(@Param("id") Long id);
+
+    @Query(value = "select new com.example.demo.dto.UserReadDto(u.id, u.username, u.version) from User u",
+            countQuery = "select count(u) from User u")
+    Page<UserReadDto> findAllReadDtos(Pageable pageable);
+
+    @Query("select new com.example.demo.dto.UserReadDto(u.id, u.username, u.version) from User u "
+            + "where u.username in :usernames")
+    List<UserReadDto> findReadDtosByUsernameIn(@Param("usernames") Collection<String> usernames);
+
+    // Pageable здесь только ограничивает выборку: для List count-запрос не выполняется
+    @Query("select new com.example.demo.dto.UserReadDto(u.id, u.username, u.version) from User u "
+            + "where u.id > :id order by u.id")
+    List<UserReadDto> findReadDtosAfter(@Param("id") Long id, Pageable limit);
+
+    // Диапазон [from, to) по индексу на username_lower вместо like с lower() на каждой строке
+    @Query("select new com.example.demo.dto.UserReadDto(u.id, u.username, u.version) from User u "
+            + "where u.usernameLower >= :from and u.usernameLower < :to order by u.usernameLower")
+    List<UserReadDto> findReadDtosByUsernameLowerRange(@Param("from") String from,
+                                                       @Param("to") String to,
+                                                       Pageable limit);
+
+    // Частичное обновление одним UPDATE: null оставляет колонку как есть, версия проверяется и растёт в том же запросе.
+    // 0 обновлённых строк означает, что user удалён или изменён конкурентно
+    @Transactional
+    @Modifying
+    @Query("update User u set u.username = coalesce(:username, u.username), "
+            + "u.password = coalesce(:password, u.password), "
+            + "u.role = coalesce(:role, u.role), "
+            + "u.version = u.version + 1 "
+            + "where u.id = :id and u.version = :version")
+    int updatePartially(@Param("id") Long id,
+                        @Param("version") Long version,
+                        @Param("username") String username,
+                        @Param("password") String password,
+                        @Param("role") Role role);
+
+    // Курсорное чтение всей таблицы, требует открытой транзакции
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.demo.dto.UserReadDto(u.id, u.username, u.version) from User u order by u.id")
+    Stream<UserReadDto> streamAllReadDtos();
 }
@@ -0,0 +1,71 @@
+package com.example.demo.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Блочный Bloom-фильтр: все биты ключа лежат в одном 512-битном блоке (одна кэш-линия),
+// поэтому проверка стоит один промах кэша вместо одного на каждую хэш-функцию.
+// Размер фиксируется при создании; ложные срабатывания возможны, пропуски — нет.
+// Запись требует внешней блокировки, чтение идёт без блокировок
+public class BloomFilter {
+    private static final int BLOCK_BITS = 512;
+    private static final int WORDS_PER_BLOCK = BLOCK_BITS / Long.SIZE;
+    private static final int MAX_HASH_FUNCTIONS = 16;
+
+    private final AtomicLongArray words;
+    private final int blocks;
+    private final int hashFunctions;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions < 1) {
+            throw new IllegalArgumentException("Expected insertions must be positive: " + expectedInsertions);
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("False positive probability must be in (0, 1): "
+                    + falsePositiveProbability);
+        }
+        double bits = -expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2));
+        long blockCount = Math.max(1, (long) Math.ceil(bits / BLOCK_BITS));
+        if (blockCount * WORDS_PER_BLOCK > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Bloom filter is too large: " + (long) bits + " bits");
+        }
+        this.blocks = (int) blockCount;
+        this.words = new AtomicLongArray(blocks * WORDS_PER_BLOCK);
+        this.hashFunctions = (int) Math.max(1, Math.min(MAX_HASH_FUNCTIONS,
+                Math.round((double) blocks * BLOCK_BITS / expectedInsertions * Math.log(2))));
+    }
+
+    // hash1 выбирает блок, hash2 — биты внутри блока
+    public void put(long hash1, long hash2) {
+        int base = block(hash1);
+        for (int i = 0; i < hashFunctions; i++) {
+            int bit = bit(hash2, i);
+            int index = base + (bit >>> 6);
+            words.set(index, words.get(index) | (1L << bit));
+        }
+    }
+
+    public boolean mightContain(long hash1, long hash2) {
+        int base = block(hash1);
+        for (int i = 0; i < hashFunctions; i++) {
+            int bit = bit(hash2, i);
+            if ((words.get(base + (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return (long) words.length() * Long.SIZE;
+    }
+
+    // Умножение со сдвигом вместо деления по модулю
+    private int block(long hash1) {
+        return (int) (((hash1 >>> 32) * blocks) >>> 32) * WORDS_PER_BLOCK;
+    }
+
+    // Двойное хэширование в пределах блока: i-й бит = hash2 + i * шаг
+    private static int bit(long hash2, int i) {
+        return (int) ((hash2 + i * ((hash2 >>> 32) | 1)) & (BLOCK_BITS - 1));
+    }
+}
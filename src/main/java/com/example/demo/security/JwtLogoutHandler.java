@@ -0,0 +1,27 @@
+package com.example.demo.security;
+
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.logout.LogoutHandler;
+
+// В stateless-режиме завершать нечего, кроме самого токена: logout отзывает его до истечения срока
+@RequiredArgsConstructor
+public class JwtLogoutHandler implements LogoutHandler {
+    private final JwtService jwtService;
+
+    @Override
+    public void logout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(JwtAuthenticationFilter.BEARER_PREFIX)) {
+            try {
+                jwtService.revokeToken(header.substring(JwtAuthenticationFilter.BEARER_PREFIX.length()));
+            } catch (JwtException e) {
+                // Невалидный или просроченный токен отзывать не нужно
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.jwt")
+public class JwtProperties {
+    // Stateless-режим: вместо HttpSession клиент получает подписанный токен
+    private boolean enabled = false;
+
+    // HMAC-ключ в Base64 (не короче 256 бит), общий для всех узлов.
+    // Отзыв токенов при этом локален: logout, удаление или изменение пользователя действуют только на узле,
+    // который обработал запрос, а на остальных токен принимается до истечения ttl.
+    // Поэтому отзыв гарантирован только при одном экземпляре приложения; за балансировщиком нужен короткий ttl
+    private String secret;
+
+    private Duration ttl = Duration.ofHours(1);
+
+    private Revocation revocation = new Revocation();
+
+    @Getter
+    @Setter
+    public static class Revocation {
+        // Сколько отзывов (logout, удаление и изменение пользователей) ожидается за один ttl:
+        // под это число заранее выделяются Bloom-фильтр и таблица, около 20 байт на отзыв в каждом из двух поколений
+        private int expectedRevocations = 100_000;
+
+        // Доля непрошедших отзыв токенов, которым всё же приходится искать ключ в таблице
+        private double falsePositiveProbability = 0.01;
+    }
+}
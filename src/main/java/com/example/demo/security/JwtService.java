@@ -0,0 +1,155 @@
+package com.example.demo.security;
+
+import com.example.demo.entity.Role;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.SecretKey;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class JwtService {
+    private static final String ROLE_CLAIM = "role";
+    // iat по RFC 7519 в секундах; для сравнения с моментом отзыва нужен момент выпуска с миллисекундами
+    private static final String ISSUED_AT_MILLIS_CLAIM = "iat_ms";
+    private static final String SUBJECT_KEY_PREFIX = "sub:";
+
+    private final JwtProperties properties;
+    private final SecretKey key;
+    private final Clock clock;
+    // null, если stateless-режим выключен
+    private final TokenRevocationList revocationList;
+    private final Counter revocationOverflowCounter;
+
+    @Autowired
+    public JwtService(JwtProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Clock.systemUTC());
+    }
+
+    JwtService(JwtProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.revocationOverflowCounter = Counter.builder("jwt.revocation.overflow")
+                .description("Revocations that did not fit the revocation list and revoked all issued tokens")
+                .register(meterRegistry);
+        this.revocationList = properties.isEnabled()
+                ? new TokenRevocationList(properties.getRevocation(), properties.getTtl(), clock)
+                : null;
+        if (StringUtils.hasText(properties.getSecret())) {
+            this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(properties.getSecret()));
+        } else {
+            if (properties.isEnabled()) {
+                log.warn("security.jwt.secret is not set, tokens are signed with a random key of this instance");
+            }
+            this.key = Jwts.SIG.HS256.key().build();
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public String generateToken(Authentication authentication) {
+        Instant now = clock.instant();
+        String role = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Authentication has no role: " + authentication.getName()));
+        return Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(authentication.getName())
+                .claim(ROLE_CLAIM, role)
+                .claim(ISSUED_AT_MILLIS_CLAIM, now.toEpochMilli())
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(properties.getTtl())))
+                .signWith(key)
+                .compact();
+    }
+
+    // Проверяет подпись, срок действия и отзыв и собирает Authentication только из claims, без обращения к базе.
+    // Бросает JwtException, если токен невалиден, просрочен или отозван
+    public Authentication parseToken(String token) {
+        Claims claims = parseClaims(token);
+        if (isRevoked(claims)) {
+            throw new JwtException("Token has been revoked");
+        }
+        Role role;
+        try {
+            role = Role.valueOf(claims.get(ROLE_CLAIM, String.class));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new JwtException("Token has no valid role claim");
+        }
+        return UsernamePasswordAuthenticationToken.authenticated(
+                claims.getSubject(), null, Collections.singleton(role));
+    }
+
+    // Logout: отзывает сам токен до истечения его срока. Бросает JwtException, если токен невалиден
+    public void revokeToken(String token) {
+        Claims claims = parseClaims(token);
+        if (revocationList != null && claims.getId() != null) {
+            revoke(claims.getId(), clock.instant(), claims.getExpiration().toInstant());
+        }
+    }
+
+    // Удаление пользователя или смена его username, пароля или роли: отзываются все токены, выпущенные до этого
+    // момента. Сравнение идёт по миллисекундам, так что войти заново можно сразу; отклоняется только токен,
+    // выпущенный в ту же миллисекунду
+    public void revokeSubject(String username) {
+        if (revocationList != null) {
+            Instant now = clock.instant();
+            revoke(SUBJECT_KEY_PREFIX + username, now, now.plus(properties.getTtl()));
+        }
+    }
+
+    // Вызывается и после закоммиченной записи в UserService, поэтому переполнение списка не бросает исключение:
+    // список уже отозвал все выпущенные токены, остаётся сообщить об этом
+    private void revoke(String key, Instant revokedAt, Instant expiresAt) {
+        if (!revocationList.revoke(key, revokedAt, expiresAt)) {
+            revocationOverflowCounter.increment();
+            log.warn("Token revocation list is full, all tokens issued until {} are revoked; "
+                    + "increase security.jwt.revocation.expected-revocations", revokedAt);
+        }
+    }
+
+    private Claims parseClaims(String token) {
+        return Jwts.parser()
+                .verifyWith(key)
+                .clock(() -> Date.from(clock.instant()))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private boolean isRevoked(Claims claims) {
+        if (revocationList == null) {
+            return false;
+        }
+        if (claims.getIssuedAt() == null) {
+            throw new JwtException("Token has no issued-at claim");
+        }
+        // Токены без iat_ms сравниваются по iat: выпущенный в одну секунду с отзывом тоже считается отозванным
+        Long issuedAtMillis = claims.get(ISSUED_AT_MILLIS_CLAIM, Long.class);
+        Instant issuedAt = issuedAtMillis != null
+                ? Instant.ofEpochMilli(issuedAtMillis)
+                : claims.getIssuedAt().toInstant();
+        return claims.getId() != null && revocationList.isRevoked(claims.getId(), issuedAt)
+                || revocationList.isRevoked(SUBJECT_KEY_PREFIX + claims.getSubject(), issuedAt);
+    }
+}
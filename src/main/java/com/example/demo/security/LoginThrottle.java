@@ -0,0 +1,60 @@
+package com.example.demo.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+// Бакеты по IP и по username в Caffeine: чтение идёт без блокировок, размер ограничен,
+// а бакет, простоявший refillPeriod, снова полон и вытесняется без потери состояния
+public class LoginThrottle {
+    private final Ticker ticker;
+    private final LoginThrottlingProperties.Bucket perIp;
+    private final LoginThrottlingProperties.Bucket perUsername;
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final Cache<String, TokenBucket> usernameBuckets;
+
+    public LoginThrottle(LoginThrottlingProperties properties, Ticker ticker) {
+        this.ticker = ticker;
+        this.perIp = properties.getPerIp();
+        this.perUsername = properties.getPerUsername();
+        this.ipBuckets = buckets(properties.getMaxTrackedKeys(), perIp, ticker);
+        this.usernameBuckets = buckets(properties.getMaxTrackedKeys(), perUsername, ticker);
+    }
+
+    // 0, если попытку входа можно пропускать к аутентификации, иначе сколько наносекунд ждать
+    public long tryAcquire(String clientIp, String username) {
+        long now = ticker.read();
+        long ipWait = ipBuckets.get(clientIp, key -> new TokenBucket(perIp.getCapacity(), perIp.getRefillPeriod(), now))
+                .tryAcquire(now);
+        if (ipWait > 0 || username == null) {
+            return ipWait;
+        }
+        return usernameBuckets.get(username,
+                        key -> new TokenBucket(perUsername.getCapacity(), perUsername.getRefillPeriod(), now))
+                .tryAcquire(now);
+    }
+
+    // Успешный вход не расходует попытки: токены, взятые в tryAcquire, возвращаются
+    public void refund(String clientIp, String username) {
+        TokenBucket ipBucket = ipBuckets.getIfPresent(clientIp);
+        if (ipBucket != null) {
+            ipBucket.refund();
+        }
+        if (username != null) {
+            TokenBucket usernameBucket = usernameBuckets.getIfPresent(username);
+            if (usernameBucket != null) {
+                usernameBucket.refund();
+            }
+        }
+    }
+
+    private static Cache<String, TokenBucket> buckets(long maxTrackedKeys,
+                                                      LoginThrottlingProperties.Bucket bucket,
+                                                      Ticker ticker) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(bucket.getRefillPeriod())
+                .ticker(ticker)
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Стоит перед UsernamePasswordAuthenticationFilter: исчерпанный бакет отклоняется с 429
+// до loadUserByUsername и проверки пароля. Токен берётся до аутентификации, чтобы параллельные
+// попытки не проскакивали мимо лимита, и возвращается после успешного входа: расходуют бакет только неудачи.
+// getRemoteAddr — адрес клиента: за балансировщиком его подставляет Tomcat из X-Forwarded-For
+// (server.forward-headers-strategy, доверенные прокси — server.tomcat.remoteip.internal-proxies)
+public class LoginThrottlingFilter extends OncePerRequestFilter {
+    private static final RequestMatcher LOGIN_REQUEST = new AntPathRequestMatcher("/login", HttpMethod.POST.name());
+    private static final AuthenticationTrustResolver TRUST_RESOLVER = new AuthenticationTrustResolverImpl();
+
+    private final LoginThrottle loginThrottle;
+    private final Counter throttledCounter;
+
+    public LoginThrottlingFilter(LoginThrottle loginThrottle, MeterRegistry meterRegistry) {
+        this.loginThrottle = loginThrottle;
+        this.throttledCounter = Counter.builder("login.throttled")
+                .description("Login attempts rejected before authentication")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !LOGIN_REQUEST.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String clientIp = request.getRemoteAddr();
+        String username = request.getParameter("username");
+        long waitNanos = loginThrottle.tryAcquire(clientIp, username);
+        if (waitNanos > 0) {
+            throttledCounter.increment();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos))));
+            return;
+        }
+        filterChain.doFilter(request, response);
+        if (TRUST_RESOLVER.isAuthenticated(SecurityContextHolder.getContext().getAuthentication())) {
+            loginThrottle.refund(clientIp, username);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.login-throttling")
+public class LoginThrottlingProperties {
+    private boolean enabled = true;
+
+    // Верхняя граница числа бакетов на каждый вид ключа; простаивающие бакеты вытесняются раньше
+    private long maxTrackedKeys = 100_000;
+
+    private Bucket perUsername = new Bucket(5, Duration.ofMinutes(1));
+
+    private Bucket perIp = new Bucket(50, Duration.ofMinutes(1));
+
+    @Getter
+    @Setter
+    public static class Bucket {
+        // Сколько попыток подряд разрешено, и за какое время пустой бакет наполняется целиком
+        private int capacity;
+
+        private Duration refillPeriod;
+
+        public Bucket() {
+        }
+
+        public Bucket(int capacity, Duration refillPeriod) {
+            this.capacity = capacity;
+            this.refillPeriod = refillPeriod;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Таймеры password.encoder.encode и password.encoder.matches с тегом algorithm:
+// id алгоритма берётся из префикса {id} хэша, как в DelegatingPasswordEncoder
+public class TimedPasswordEncoder implements PasswordEncoder {
+    private static final String UNKNOWN_ALGORITHM = "none";
+
+    private final PasswordEncoder delegate;
+    private final MeterRegistry meterRegistry;
+    private final Timer encodeTimer;
+    private final Map<String, Timer> matchesTimers = new ConcurrentHashMap<>();
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, String encodingId, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.encodeTimer = timer("password.encoder.encode", encodingId);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Timer timer = matchesTimers.computeIfAbsent(extractAlgorithm(encodedPassword),
+                algorithm -> timer("password.encoder.matches", algorithm));
+        return timer.record(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private Timer timer(String name, String algorithm) {
+        return Timer.builder(name)
+                .tag("algorithm", algorithm)
+                .register(meterRegistry);
+    }
+
+    private static String extractAlgorithm(String encodedPassword) {
+        if (encodedPassword == null || !encodedPassword.startsWith("{")) {
+            return UNKNOWN_ALGORITHM;
+        }
+        int end = encodedPassword.indexOf('}');
+        return end > 1 ? encodedPassword.substring(1, end) : UNKNOWN_ALGORITHM;
+    }
+}
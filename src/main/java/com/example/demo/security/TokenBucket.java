@@ -0,0 +1,39 @@
+package com.example.demo.security;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket в виде GCRA: всё состояние — одно «теоретическое время прибытия» в AtomicLong,
+// поэтому tryAcquire обходится одним CAS без блокировок
+public class TokenBucket {
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalTime;
+
+    public TokenBucket(int capacity, Duration refillPeriod, long nowNanos) {
+        this.emissionIntervalNanos = refillPeriod.toNanos() / capacity;
+        this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+        this.theoreticalArrivalTime = new AtomicLong(nowNanos);
+    }
+
+    // 0, если токен выдан, иначе сколько наносекунд ждать следующего токена
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrivalTime.get();
+            long start = Math.max(current, nowNanos);
+            long waitNanos = start - nowNanos - burstToleranceNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrivalTime.compareAndSet(current, start + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    // Возвращает ранее выданный токен. Время прибытия в прошлом не даёт запаса сверх capacity,
+    // поэтому лишний возврат не копит попытки
+    public void refund() {
+        theoreticalArrivalTime.addAndGet(-emissionIntervalNanos);
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.demo.security;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Отозванные токены без обращения к базе: Bloom-фильтр перед точной таблицей ключей.
+// Ключ — jti токена или ключ пользователя, значение — момент отзыва с точностью до миллисекунды:
+// токен отозван, если выпущен не позже него.
+// Память фиксирована: не больше двух поколений (текущее и предыдущее), каждое — Bloom-фильтр и таблица
+// с открытой адресацией на expectedRevocations ключей. Поколение принимает записи один период
+// (максимальный ttl токена), ещё один период только читается и выбрасывается целиком: всё записанное в него
+// к этому времени истекло, поэтому чистка не перебирает ключи.
+// Переполнение поколения не теряет отзыв: вместо ключа отзываются все токены, выпущенные до этого момента.
+// Запись под блокировкой, чтение без блокировок. Список локален для экземпляра приложения
+// и между узлами не распространяется (см. JwtProperties.secret)
+public class TokenRevocationList {
+    private static final long SEED1 = 0x9E3779B97F4A7C15L;
+    private static final long SEED2 = 0xC2B2AE3D27D4EB4FL;
+
+    private final Clock clock;
+    private final Duration period;
+    private final int expectedRevocations;
+    private final double falsePositiveProbability;
+    private volatile State state;
+    // Отзыв всех токенов, выпущенных не позже этого момента (мс); -1, пока поколения не переполнялись
+    private volatile long revokedAllAtMillis = -1;
+
+    public TokenRevocationList(JwtProperties.Revocation properties, Duration period, Clock clock) {
+        if (properties.getExpectedRevocations() < 1) {
+            throw new IllegalArgumentException("Expected revocations must be positive: "
+                    + properties.getExpectedRevocations());
+        }
+        this.clock = clock;
+        this.period = period;
+        this.expectedRevocations = properties.getExpectedRevocations();
+        this.falsePositiveProbability = properties.getFalsePositiveProbability();
+        this.state = new State(null, null, clock.millis() + period.toMillis());
+    }
+
+    // expiresAt — когда истекают все токены, которых касается отзыв; не позже чем через период.
+    // false, если поколение заполнено: тогда отозваны все токены, выпущенные не позже revokedAt
+    public boolean revoke(String key, Instant revokedAt, Instant expiresAt) {
+        Instant now = clock.instant();
+        if (expiresAt.isAfter(now.plus(period))) {
+            throw new IllegalArgumentException("Revocation of " + key + " expires after " + expiresAt
+                    + ", later than the revocation period " + period);
+        }
+        long hash1 = hash(key, SEED1);
+        long hash2 = hash(key, SEED2);
+        synchronized (this) {
+            State current = rotate(now.toEpochMilli());
+            if (current.current == null) {
+                current = new State(new Generation(expectedRevocations, falsePositiveProbability),
+                        current.previous, current.rotateAtMillis);
+                state = current;
+            }
+            if (current.current.put(hash1, hash2, revokedAt.toEpochMilli())) {
+                return true;
+            }
+            revokedAllAtMillis = Math.max(revokedAllAtMillis, revokedAt.toEpochMilli());
+            return false;
+        }
+    }
+
+    public boolean isRevoked(String key, Instant issuedAt) {
+        long issuedAtMillis = issuedAt.toEpochMilli();
+        return revokedAllAtMillis >= issuedAtMillis || revokedAtMillis(key) >= issuedAtMillis;
+    }
+
+    // Только Bloom-фильтры: false — ключ точно не отзывался
+    public boolean mightBeRevoked(String key) {
+        long hash1 = hash(key, SEED1);
+        long hash2 = hash(key, SEED2);
+        State current = state;
+        return current.current != null && current.current.bloomFilter.mightContain(hash1, hash2)
+                || current.previous != null && current.previous.bloomFilter.mightContain(hash1, hash2);
+    }
+
+    // Чтение не сдвигает поколения: устаревшее предыдущее поколение отвечает верно и выбрасывается при записи
+    private long revokedAtMillis(String key) {
+        State current = state;
+        if (current.current == null && current.previous == null) {
+            return -1;
+        }
+        long hash1 = hash(key, SEED1);
+        long hash2 = hash(key, SEED2);
+        long revokedAt = -1;
+        if (current.current != null) {
+            revokedAt = current.current.revokedAtMillis(hash1, hash2);
+        }
+        if (current.previous != null) {
+            revokedAt = Math.max(revokedAt, current.previous.revokedAtMillis(hash1, hash2));
+        }
+        return revokedAt;
+    }
+
+    private State rotate(long nowMillis) {
+        State current = state;
+        while (nowMillis >= current.rotateAtMillis) {
+            if (current.current == null && current.previous == null) {
+                current = new State(null, null, nowMillis + period.toMillis());
+            } else {
+                current = new State(null, current.current, current.rotateAtMillis + period.toMillis());
+            }
+        }
+        state = current;
+        return current;
+    }
+
+    // Две независимые 64-битные функции (по seed), по четыре символа за шаг умножения,
+    // с финальным перемешиванием fmix64 из MurmurHash3
+    static long hash(String key, long seed) {
+        int length = key.length();
+        long h = seed ^ length;
+        int i = 0;
+        for (; i + 4 <= length; i += 4) {
+            long chunk = key.charAt(i) | (long) key.charAt(i + 1) << 16
+                    | (long) key.charAt(i + 2) << 32 | (long) key.charAt(i + 3) << 48;
+            h = (h ^ chunk) * 0x9E3779B97F4A7C15L;
+            h ^= h >>> 32;
+        }
+        for (; i < length; i++) {
+            h = (h ^ key.charAt(i)) * 0x9E3779B97F4A7C15L;
+            h ^= h >>> 32;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private record State(Generation current, Generation previous, long rotateAtMillis) {
+    }
+
+    private static final class Generation {
+        private static final double LOAD_FACTOR = 0.75;
+        // 42 бита миллисекунд от эпохи хватает до 2109 года
+        private static final long MILLIS_MASK = (1L << 42) - 1;
+
+        private final BloomFilter bloomFilter;
+        // Пары long на слот: [hash2, старшие 22 бита hash1 | момент отзыва в миллисекундах].
+        // 86 бит отпечатка вместо строки ключа: 16 байт на слот, случайное совпадение исключено на практике
+        private final AtomicLongArray table;
+        private final int mask;
+        private final int maxSize;
+        private int size;
+
+        Generation(int expectedRevocations, double falsePositiveProbability) {
+            this.bloomFilter = new BloomFilter(expectedRevocations, falsePositiveProbability);
+            long minSlots = (long) Math.ceil(expectedRevocations / LOAD_FACTOR);
+            if (minSlots > 1 << 29) {
+                throw new IllegalArgumentException("Too many expected revocations: " + expectedRevocations);
+            }
+            int slots = Integer.highestOneBit((int) Math.max(2, minSlots) - 1) << 1;
+            this.table = new AtomicLongArray(slots * 2);
+            this.mask = slots - 1;
+            this.maxSize = slots - slots / 8;
+        }
+
+        // Сначала таблица, потом Bloom-фильтр: читатель, увидевший биты фильтра, найдёт и запись.
+        // false, если ключа нет и места под него не осталось
+        boolean put(long hash1, long hash2, long revokedAtMillis) {
+            long fingerprint = fingerprint(hash2);
+            long tag = hash1 & ~MILLIS_MASK;
+            for (int slot = (int) hash1 & mask; ; slot = (slot + 1) & mask) {
+                long stored = table.get(2 * slot);
+                if (stored == 0) {
+                    if (size >= maxSize) {
+                        return false;
+                    }
+                    table.set(2 * slot + 1, tag | (revokedAtMillis & MILLIS_MASK));
+                    table.set(2 * slot, fingerprint);
+                    size++;
+                    break;
+                }
+                long value = table.get(2 * slot + 1);
+                if (stored == fingerprint && (value & ~MILLIS_MASK) == tag) {
+                    if (revokedAtMillis > (value & MILLIS_MASK)) {
+                        table.set(2 * slot + 1, tag | (revokedAtMillis & MILLIS_MASK));
+                    }
+                    return true;
+                }
+            }
+            bloomFilter.put(hash1, hash2);
+            return true;
+        }
+
+        long revokedAtMillis(long hash1, long hash2) {
+            if (!bloomFilter.mightContain(hash1, hash2)) {
+                return -1;
+            }
+            long fingerprint = fingerprint(hash2);
+            long tag = hash1 & ~MILLIS_MASK;
+            for (int slot = (int) hash1 & mask; ; slot = (slot + 1) & mask) {
+                long stored = table.get(2 * slot);
+                if (stored == 0) {
+                    return -1;
+                }
+                long value = table.get(2 * slot + 1);
+                if (stored == fingerprint && (value & ~MILLIS_MASK) == tag) {
+                    return value & MILLIS_MASK;
+                }
+            }
+        }
+
+        // 0 означает пустой слот
+        private static long fingerprint(long hash2) {
+            return hash2 == 0 ? 1 : hash2;
+        }
+    }
+}
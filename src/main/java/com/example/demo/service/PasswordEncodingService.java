@@ -0,0 +1,84 @@
+package com.example.demo.service;
+
+import com.example.demo.config.PasswordEncodingProperties;
+import com.example.demo.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.CompositeTaskDecorator;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Выносит CPU-ёмкое хэширование паролей с потоков Tomcat в отдельный ограниченный пул.
+// Метрики: executor.* с тегом name=password.encoding (в т.ч. executor.queued) и таймер password.encoding.duration
+@Service
+public class PasswordEncodingService {
+    private static final String EXECUTOR_NAME = "password.encoding";
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    // Все TaskDecorator приложения по порядку: продолжение после хэширования отправляется
+    // в applicationTaskExecutor уже из потока пула и должно унести контекст запроса
+    private final Executor decoratedExecutor;
+    private final Timer encodeTimer;
+
+    public PasswordEncodingService(PasswordEncoder passwordEncoder,
+                                   PasswordEncodingProperties properties,
+                                   MeterRegistry meterRegistry,
+                                   List<TaskDecorator> taskDecorators) {
+        this.passwordEncoder = passwordEncoder;
+        this.executor = new ThreadPoolExecutor(properties.getPoolSize(), properties.getPoolSize(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                threadFactory(), rejectionHandler(properties.getRejectionPolicy()));
+        TaskDecorator taskDecorator = new CompositeTaskDecorator(taskDecorators);
+        this.decoratedExecutor = task -> executor.execute(taskDecorator.decorate(task));
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, Tags.empty()).bindTo(meterRegistry);
+        this.encodeTimer = Timer.builder(EXECUTOR_NAME + ".duration")
+                .description("Time spent hashing a single password")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<String> encodeAsync(String rawPassword) {
+        try {
+            return CompletableFuture.supplyAsync(
+                    () -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword)), decoratedExecutor);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("Password encoding queue is full, retry later");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static RejectedExecutionHandler rejectionHandler(PasswordEncodingProperties.RejectionPolicy policy) {
+        return switch (policy) {
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+        };
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-encoder-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
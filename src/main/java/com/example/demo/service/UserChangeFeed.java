@@ -0,0 +1,169 @@
+package com.example.demo.service;
+
+import com.example.demo.config.UserChangeFeedProperties;
+import com.example.demo.dto.UserChangeEvent;
+import com.example.demo.dto.UserReadDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Лента изменений пользователей для SSE-подписчиков.
+// Писатель только кладёт событие в кольцевой буфер и будит поток рассылки, поэтому его стоимость
+// не зависит от числа подписчиков. Каждый подписчик вычитывает буфер со своего курсора
+// на отдельном виртуальном потоке: медленный клиент не задерживает ни писателя, ни остальных
+@Service
+public class UserChangeFeed {
+    private final int replayBufferSize;
+    private final long timeoutMillis;
+    private final AtomicReferenceArray<UserChangeEvent> replayBuffer;
+    // Номер последнего опубликованного события; слот буфера заполняется до его увеличения
+    private final AtomicLong lastSequence = new AtomicLong();
+    private final Object appendLock = new Object();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean fanOutScheduled = new AtomicBoolean();
+    private final ExecutorService fanOutExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("user-change-feed").daemon().factory());
+    private final ExecutorService deliveryExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("user-change-feed-delivery-", 0).factory());
+
+    public UserChangeFeed(UserChangeFeedProperties properties, MeterRegistry meterRegistry) {
+        this.replayBufferSize = properties.getReplayBufferSize();
+        this.timeoutMillis = properties.getTimeout().toMillis();
+        this.replayBuffer = new AtomicReferenceArray<>(replayBufferSize);
+        Gauge.builder("users.change-feed.subscribers", subscribers, Set::size)
+                .description("Active SSE subscribers of the user change feed")
+                .register(meterRegistry);
+    }
+
+    // Внутри транзакции событие уходит только после коммита, чтобы подписчики не увидели откатившуюся запись
+    public void publish(UserChangeEvent.Type type, UserReadDto user) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(type, user);
+                }
+            });
+        } else {
+            append(type, user);
+        }
+    }
+
+    // lastEventId == null — только новые события; иначе сначала догонка из буфера
+    public SseEmitter subscribe(Long lastEventId) {
+        return subscribe(lastEventId, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(Long lastEventId, SseEmitter emitter) {
+        long last = lastSequence.get();
+        long cursor = lastEventId == null
+                ? last
+                : Math.max(Math.min(lastEventId, last), last - replayBufferSize);
+        Subscriber subscriber = new Subscriber(emitter, cursor);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        subscriber.scheduleDelivery();
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOutExecutor.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        deliveryExecutor.shutdownNow();
+    }
+
+    private void append(UserChangeEvent.Type type, UserReadDto user) {
+        // Номер и слот выдаются под коротким локом: конкурентные писатели не должны перемешать порядок
+        synchronized (appendLock) {
+            long sequence = lastSequence.get() + 1;
+            replayBuffer.set(slot(sequence), UserChangeEvent.builder()
+                    .sequence(sequence)
+                    .type(type)
+                    .id(user.getId())
+                    .username(user.getUsername())
+                    .build());
+            lastSequence.set(sequence);
+        }
+        // Несколько публикаций подряд схлопываются в один проход по подписчикам
+        if (fanOutScheduled.compareAndSet(false, true)) {
+            fanOutExecutor.execute(this::fanOut);
+        }
+    }
+
+    private void fanOut() {
+        fanOutScheduled.set(false);
+        subscribers.forEach(Subscriber::scheduleDelivery);
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % replayBufferSize);
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean delivering = new AtomicBoolean();
+        // Номер последнего отправленного события; меняется только потоком, который держит delivering
+        private long cursor;
+
+        private Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+
+        private void scheduleDelivery() {
+            if (delivering.compareAndSet(false, true)) {
+                deliveryExecutor.execute(this::deliver);
+            }
+        }
+
+        private void deliver() {
+            try {
+                do {
+                    while (cursor < lastSequence.get()) {
+                        UserChangeEvent event = replayBuffer.get(slot(cursor + 1));
+                        if (event == null || event.getSequence() != cursor + 1) {
+                            // Слот уже перезаписан: подписчик отстал больше чем на буфер.
+                            // Закрываем поток, клиент переподключится с Last-Event-ID
+                            subscribers.remove(this);
+                            emitter.complete();
+                            return;
+                        }
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(event.getSequence()))
+                                .name(event.getType().name().toLowerCase(Locale.ROOT))
+                                .data(event, MediaType.APPLICATION_JSON));
+                        cursor++;
+                    }
+                    delivering.set(false);
+                    // Событие могло прийти между последней проверкой и сбросом флага
+                } while (cursor < lastSequence.get() && delivering.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                // Клиент отключился или emitter уже завершён
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
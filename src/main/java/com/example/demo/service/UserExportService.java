@@ -0,0 +1,43 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.UserReadDto;
+import com.example.demo.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class UserExportService {
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    // Пишет всех user в NDJSON прямо в выходной поток: строки читаются курсором сразу в DTO,
+    // управляемых сущностей нет, поэтому расход памяти не зависит от размера таблицы
+    @Transactional(readOnly = true)
+    public void exportAll(OutputStream outputStream) throws IOException {
+        // NDJSON требует одну запись на строку: вывод без отступов задаётся здесь, независимо от настроек общего ObjectMapper
+        ObjectWriter writer = objectMapper.writerFor(UserReadDto.class)
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .with(new MinimalPrettyPrinter(""));
+
+        try (Stream<UserReadDto> users = userRepository.streamAllReadDtos();
+             JsonGenerator generator = writer.createGenerator(outputStream)) {
+            Iterator<UserReadDto> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+            }
+        }
+    }
+}
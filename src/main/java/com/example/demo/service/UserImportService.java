@@ -0,0 +1,316 @@
+package com.example.demo.service;
+
+import com.example.demo.datasource.ReadYourWritesTracker;
+import com.example.demo.dto.UserChangeEvent;
+import com.example.demo.dto.UserCreateDto;
+import com.example.demo.dto.UserImportReport;
+import com.example.demo.dto.UserImportResult;
+import com.example.demo.exception.ServiceUnavailableException;
+import com.example.demo.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+@RequiredArgsConstructor
+public class UserImportService {
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_USERNAME_LENGTH = 24;
+    private static final String INSERT_USER_SQL =
+            "insert into users(username, password, role, created_at) values (?, ?, ?, ?)";
+
+    private final UserRepository userRepository;
+    private final PasswordEncodingService passwordEncodingService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectMapper objectMapper;
+    private final UserChangeFeed userChangeFeed;
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public UserImportReport importUsers(Iterator<UserCreateDto> users) {
+        return importRows(new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return users.hasNext();
+            }
+
+            @Override
+            public ImportRow next() {
+                return new ImportRow(index++, users.next(), null);
+            }
+        });
+    }
+
+    // NDJSON читается потоково и построчно: битая строка становится ошибкой своей строки в отчёте,
+    // а строки до и после неё импортируются как обычно. Пустые строки пропускаются
+    public UserImportReport importNdjson(InputStream body) {
+        return importRows(new NdjsonRows(
+                new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)),
+                objectMapper.readerFor(UserCreateDto.class)));
+    }
+
+    // Импорт идёт пачками по CHUNK_SIZE: одна выборка существующих username на пачку,
+    // параллельное хэширование паролей и JDBC batch insert в отдельной транзакции
+    private UserImportReport importRows(Iterator<ImportRow> rows) {
+        readYourWritesTracker.recordWrite();
+        List<UserImportResult> results = new ArrayList<>();
+        Set<String> seenUsernames = new HashSet<>();
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            if (chunk.size() == CHUNK_SIZE) {
+                importChunk(chunk, seenUsernames, results);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, seenUsernames, results);
+        }
+
+        results.sort(Comparator.comparingInt(UserImportResult::getIndex));
+        int created = (int) results.stream().filter(UserImportResult::isCreated).count();
+        return UserImportReport.builder()
+                .created(created)
+                .failed(results.size() - created)
+                .results(results)
+                .build();
+    }
+
+    private void importChunk(List<ImportRow> chunk, Set<String> seenUsernames, List<UserImportResult> results) {
+        List<ImportRow> candidates = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            String error = row.parseError() != null ? row.parseError() : validate(row.user());
+            if (error == null && !seenUsernames.add(row.user().getUsername())) {
+                error = "Duplicate username in request: " + row.user().getUsername();
+            }
+            if (error != null) {
+                results.add(failed(row, error));
+            } else {
+                candidates.add(row);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        Set<String> existingUsernames = userRepository.findExistingUsernames(
+                candidates.stream().map(row -> row.user().getUsername()).toList());
+        List<ImportRow> newRows = new ArrayList<>(candidates.size());
+        for (ImportRow row : candidates) {
+            if (existingUsernames.contains(row.user().getUsername())) {
+                results.add(failed(row, "Username already exists: " + row.user().getUsername()));
+            } else {
+                newRows.add(row);
+            }
+        }
+
+        List<EncodedRow> encodedRows = encodePasswords(newRows, results);
+
+        if (encodedRows.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertAndPublish(encodedRows));
+            encodedRows.forEach(row -> results.add(created(row.row())));
+        } catch (DataIntegrityViolationException e) {
+            // Кто-то успел вставить такой же username между проверкой и вставкой:
+            // пачка откатилась целиком, повторяем построчно, чтобы найти конфликтующие строки
+            for (EncodedRow encodedRow : encodedRows) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insertAndPublish(List.of(encodedRow)));
+                    results.add(created(encodedRow.row()));
+                } catch (DataIntegrityViolationException ex) {
+                    results.add(failed(encodedRow.row(),
+                            "Username already exists: " + encodedRow.row().user().getUsername()));
+                }
+            }
+        }
+        evictSecondLevelCache();
+    }
+
+    // При политике ABORT очередь пула может не вместить всю пачку: отклонённая строка ждёт,
+    // пока дохэшируются уже отправленные, и пробует ещё раз. Повторный отказ значит,
+    // что очередь заняли другие запросы, и строка попадает в отчёт ошибкой, а не роняет весь импорт
+    private List<EncodedRow> encodePasswords(List<ImportRow> rows, List<UserImportResult> results) {
+        List<EncodedRow> encodedRows = new ArrayList<>(rows.size());
+        List<ImportRow> pendingRows = new ArrayList<>();
+        List<CompletableFuture<String>> pendingPasswords = new ArrayList<>();
+        for (ImportRow row : rows) {
+            CompletableFuture<String> encodedPassword;
+            try {
+                encodedPassword = passwordEncodingService.encodeAsync(row.user().getPassword());
+            } catch (ServiceUnavailableException e) {
+                if (pendingRows.isEmpty()) {
+                    results.add(failed(row, e.getMessage()));
+                    continue;
+                }
+                joinPending(pendingRows, pendingPasswords, encodedRows);
+                try {
+                    encodedPassword = passwordEncodingService.encodeAsync(row.user().getPassword());
+                } catch (ServiceUnavailableException ex) {
+                    results.add(failed(row, ex.getMessage()));
+                    continue;
+                }
+            }
+            pendingRows.add(row);
+            pendingPasswords.add(encodedPassword);
+        }
+        joinPending(pendingRows, pendingPasswords, encodedRows);
+        return encodedRows;
+    }
+
+    private void joinPending(List<ImportRow> pendingRows,
+                             List<CompletableFuture<String>> pendingPasswords,
+                             List<EncodedRow> encodedRows) {
+        for (int i = 0; i < pendingRows.size(); i++) {
+            encodedRows.add(new EncodedRow(pendingRows.get(i), pendingPasswords.get(i).join()));
+        }
+        pendingRows.clear();
+        pendingPasswords.clear();
+    }
+
+    // Вставка идёт мимо Hibernate, и он не знает, что таблица users изменилась: без сброса
+    // закэшированный пустой результат findUserByUsername не давал бы импортированному user войти до истечения TTL.
+    // Импорт только добавляет строки, поэтому закэшированные сущности остаются верными и регион users не трогается
+    private void evictSecondLevelCache() {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictQueryRegions();
+    }
+
+    // Batch insert не возвращает id, поэтому вставленные строки перечитываются в той же транзакции.
+    // Внутри транзакции publish откладывает события CREATED до её коммита
+    private void insertAndPublish(List<EncodedRow> rows) {
+        insertBatch(rows);
+        userRepository.findReadDtosByUsernameIn(rows.stream().map(row -> row.row().user().getUsername()).toList())
+                .forEach(user -> userChangeFeed.publish(UserChangeEvent.Type.CREATED, user));
+    }
+
+    private void insertBatch(List<EncodedRow> rows) {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.row().user().getUsername());
+            ps.setString(2, row.encodedPassword());
+            ps.setString(3, row.row().user().getRole().name());
+            ps.setTimestamp(4, createdAt);
+        });
+    }
+
+    private String validate(UserCreateDto user) {
+        if (user == null) {
+            return "User must not be null";
+        }
+        if (!StringUtils.hasText(user.getUsername())) {
+            return "Username must not be blank";
+        }
+        if (user.getUsername().length() > MAX_USERNAME_LENGTH) {
+            return "Username must be at most " + MAX_USERNAME_LENGTH + " characters";
+        }
+        if (!StringUtils.hasText(user.getPassword())) {
+            return "Password must not be blank";
+        }
+        if (user.getRole() == null) {
+            return "Role must not be null";
+        }
+        return null;
+    }
+
+    private UserImportResult created(ImportRow row) {
+        return UserImportResult.builder()
+                .index(row.index())
+                .username(row.user().getUsername())
+                .created(true)
+                .build();
+    }
+
+    private UserImportResult failed(ImportRow row, String error) {
+        return UserImportResult.builder()
+                .index(row.index())
+                .username(row.user() == null ? null : row.user().getUsername())
+                .created(false)
+                .error(error)
+                .build();
+    }
+
+    private record ImportRow(int index, UserCreateDto user, String parseError) {
+    }
+
+    private static final class NdjsonRows implements Iterator<ImportRow> {
+        private final BufferedReader reader;
+        private final ObjectReader objectReader;
+        private String line;
+        private int lineNumber;
+        private int index;
+
+        NdjsonRows(BufferedReader reader, ObjectReader objectReader) {
+            this.reader = reader;
+            this.objectReader = objectReader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (line == null) {
+                    String next = reader.readLine();
+                    if (next == null) {
+                        return false;
+                    }
+                    lineNumber++;
+                    if (!next.isBlank()) {
+                        line = next;
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public ImportRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String current = line;
+            line = null;
+            int rowIndex = index++;
+            try {
+                return new ImportRow(rowIndex, objectReader.readValue(current), null);
+            } catch (JsonProcessingException e) {
+                return new ImportRow(rowIndex, null,
+                        "Malformed JSON at line " + lineNumber + ": " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private record EncodedRow(ImportRow row, String encodedPassword) {
+    }
+}
@@ -1,77 +1,269 @@
 package com.example.demo.service;
 
+import com.example.demo.config.CacheConfiguration;
+import com.example.demo.datasource.ReadYourWritesTracker;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.UserChangeEvent;
 import com.example.demo.dto.UserCreateDto;
 import com.example.demo.dto.UserEditDto;
 import com.example.demo.dto.UserReadDto;
 import com.example.demo.entity.User;
+import com.example.demo.exception.BadRequestException;
 import com.example.demo.exception.UserNotFoundException;
 import com.example.demo.exception.UsernameAlreadyExistsException;
+import com.example.demo.exception.VersionConflictException;
 import com.example.demo.mapper.UserMapper;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.JwtService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
+// Таймер user.service с тегами class и method на каждую публичную операцию
+@Timed("user.service")
 @Service
 @RequiredArgsConstructor
 public class UserService implements UserDetailsService {
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+    private static final int MAX_SEARCH_LIMIT = 100;
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordEncodingService passwordEncodingService;
     private final UserMapper userMapper;
+    private final CacheManager cacheManager;
+    // Boot-овский applicationTaskExecutor: пул платформенных потоков или виртуальные потоки
+    // при spring.threads.virtual.enabled=true
+    private final AsyncTaskExecutor applicationTaskExecutor;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final UserChangeFeed userChangeFeed;
+    private final JwtService jwtService;
 
-    public UserReadDto save(UserCreateDto userCreateDto) {
-        if (userRepository.findUserByUsername(userCreateDto.getUsername()).isPresent()) {
-            throw new UsernameAlreadyExistsException("Username already exists: " + userCreateDto.getUsername());
-        }
-
+    // Хэш считается в CPU-пуле PasswordEncodingService, а работа с базой уходит обратно
+    // в applicationTaskExecutor, чтобы не занимать потоки хэширования ожиданием JDBC
+    // Уникальность username проверяет сама база: один INSERT вместо SELECT + INSERT и без гонки между ними
+    public CompletableFuture<UserReadDto> save(UserCreateDto userCreateDto) {
+        readYourWritesTracker.recordWrite();
         User user = userMapper.userCreateDtoToUser(userCreateDto);
-        user.setPassword(passwordEncoder.encode(userCreateDto.getPassword()));
         user.setCreatedAt(LocalDateTime.now());
-        return userMapper.userToUserReadDto(userRepository.save(user));
+        return passwordEncodingService.encodeAsync(userCreateDto.getPassword())
+                .thenApplyAsync(encodedPassword -> {
+                    user.setPassword(encodedPassword);
+                    UserReadDto saved = userMapper.userToUserReadDto(saveAndFlushUnique(user));
+                    userChangeFeed.publish(UserChangeEvent.Type.CREATED, saved);
+                    return saved;
+                }, applicationTaskExecutor);
     }
 
+    // Чтение по PK идёт через кэш второго уровня: повторный запрос того же user обходится без SQL
+    @Transactional(readOnly = true)
     public UserReadDto findById(Long id) {
-        return userRepository.findById(id)
-                .map(userMapper::userToUserReadDto)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
+        return userMapper.userToUserReadDto(findUser(id));
     }
 
+    @Transactional(readOnly = true)
     public Page<UserReadDto> findAll(Pageable pageable) {
-        return userRepository.findAll(pageable).map(userMapper::userToUserReadDto);
+        return userRepository.findAllReadDtos(pageable);
+    }
+
+    // Автодополнение: username, начинающиеся с prefix без учёта регистра, по алфавиту
+    @Transactional(readOnly = true)
+    public List<UserReadDto> searchByUsernamePrefix(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new BadRequestException("Search prefix must not be blank");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new BadRequestException("Search limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        String from = prefix.toLowerCase(Locale.ROOT);
+        return userRepository.findReadDtosByUsernameLowerRange(from, from + Character.MAX_VALUE,
+                PageRequest.ofSize(limit));
+    }
+
+    // Keyset-пагинация: WHERE id > :cursor ORDER BY id LIMIT n, без OFFSET и count(*)
+    @Transactional(readOnly = true)
+    public CursorPage<UserReadDto> findAllAfter(String cursor, int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        long afterId = cursor == null ? 0L : decodeCursor(cursor);
+
+        // Берём на одну запись больше, чтобы понять, есть ли следующая страница
+        List<UserReadDto> users = userRepository.findReadDtosAfter(afterId, PageRequest.ofSize(size + 1));
+        boolean hasNext = users.size() > size;
+        List<UserReadDto> pageUsers = hasNext ? users.subList(0, size) : users;
+
+        return CursorPage.<UserReadDto>builder()
+                .content(pageUsers)
+                .nextCursor(hasNext ? encodeCursor(pageUsers.get(size - 1).getId()) : null)
+                .build();
+    }
+
+    public CompletableFuture<UserReadDto> update(Long id, UserEditDto userEditDto) {
+        return update(id, userEditDto, null);
     }
 
-    public UserReadDto update(Long id, UserEditDto userEditDto) {
-        User user = userRepository.findById(id)
+    // PUT и PATCH: поля со значением null не меняются, пароль хэшируется только если передан.
+    // Вместо загрузки сущности и merge — выборка username и версии по PK и один UPDATE с проверкой версии.
+    // expectedVersion берётся из If-Match; null означает обновление без предусловия
+    public CompletableFuture<UserReadDto> update(Long id, UserEditDto userEditDto, Long expectedVersion) {
+        // До чтения: текущая версия тоже должна прийти с primary
+        readYourWritesTracker.recordWrite();
+        UserReadDto current = userRepository.findReadDtoById(id)
                 .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
-        userMapper.updateUserFromUserEditDto(userEditDto, user);
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userMapper.userToUserReadDto(userRepository.save(user));
+        if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+            throw new VersionConflictException("User with id " + id + " has version " + current.getVersion()
+                    + ", expected " + expectedVersion);
+        }
+        Function<String, UserReadDto> applyUpdate = password -> {
+            updatePartiallyUnique(id, current.getVersion(), userEditDto, password);
+            evictUserDetails(current.getUsername());
+            // Выданные токены несут старые username и роль
+            jwtService.revokeSubject(current.getUsername());
+            UserReadDto updated = UserReadDto.builder()
+                    .id(id)
+                    .username(userEditDto.getUsername() != null ? userEditDto.getUsername() : current.getUsername())
+                    .version(current.getVersion() + 1)
+                    .build();
+            userChangeFeed.publish(UserChangeEvent.Type.UPDATED, updated);
+            return updated;
+        };
+        // Без пароля хэшировать нечего: UPDATE выполняется сразу, без переключения на applicationTaskExecutor
+        if (userEditDto.getPassword() == null) {
+            return CompletableFuture.<String>completedFuture(null).thenApply(applyUpdate);
+        }
+        return passwordEncodingService.encodeAsync(userEditDto.getPassword())
+                .thenApplyAsync(applyUpdate, applicationTaskExecutor);
     }
 
+    @Transactional
     public void delete(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new UserNotFoundException("User not found with id: " + id);
-        }
-        userRepository.deleteById(id);
+        readYourWritesTracker.recordWrite();
+        User user = findUser(id);
+        userRepository.delete(user);
+        // До коммита вход ещё читает строку user и вернул бы его в кэш и выдал бы новый токен
+        afterCommit(() -> {
+            evictUserDetails(user.getUsername());
+            jwtService.revokeSubject(user.getUsername());
+        });
+        userChangeFeed.publish(UserChangeEvent.Type.DELETED, userMapper.userToUserReadDto(user));
     }
 
+    // Без @Transactional: попадание в кэш не должно открывать транзакцию, а findUserByUsername
+    // и так выполняется репозиторием в read-only транзакции
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findUserByUsername(username)
-                .map(user -> new org.springframework.security.core.userdetails.User(
-                        user.getUsername(),
-                        user.getPassword(),
-                        Collections.singleton(user.getRole())))
-                .orElseThrow(
-                        () -> new UsernameNotFoundException(String.format("Failed to retrieve user: %s", username)));
+        Cache cache = userDetailsCache();
+        UserDetails userDetails = cache.get(username, UserDetails.class);
+        if (userDetails == null) {
+            userDetails = userRepository.findUserByUsername(username)
+                    .map(user -> new org.springframework.security.core.userdetails.User(
+                            user.getUsername(),
+                            user.getPassword(),
+                            Collections.singleton(user.getRole())))
+                    .orElseThrow(() -> new UsernameNotFoundException(
+                            String.format("Failed to retrieve user: %s", username)));
+            cache.put(username, userDetails);
+        }
+        // Отдаём копию: после аутентификации Spring Security стирает пароль в principal,
+        // и закэшированный экземпляр остался бы без пароля
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails).build();
+    }
+
+    private User findUser(Long id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
+    }
+
+    private void updatePartiallyUnique(Long id, Long version, UserEditDto userEditDto, String encodedPassword) {
+        int updated;
+        try {
+            updated = userRepository.updatePartially(id, version,
+                    userEditDto.getUsername(), encodedPassword, userEditDto.getRole());
+        } catch (DataIntegrityViolationException e) {
+            if (isUniqueViolation(e)) {
+                throw new UsernameAlreadyExistsException("Username already exists: " + userEditDto.getUsername());
+            }
+            throw e;
+        }
+        if (updated == 0) {
+            throw new VersionConflictException("User with id " + id + " was modified concurrently");
+        }
+    }
+
+    private User saveAndFlushUnique(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isUniqueViolation(e)) {
+                throw new UsernameAlreadyExistsException("Username already exists: " + user.getUsername());
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isUniqueViolation(DataIntegrityViolationException e) {
+        return e.getMostSpecificCause() instanceof SQLException sqlException
+                && UNIQUE_VIOLATION_SQL_STATE.equals(sqlException.getSQLState());
+    }
+
+    private String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    // Вне транзакции действие выполняется сразу
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void evictUserDetails(String username) {
+        userDetailsCache().evict(username);
+    }
+
+    private Cache userDetailsCache() {
+        return Objects.requireNonNull(cacheManager.getCache(CacheConfiguration.USER_DETAILS_CACHE),
+                "Cache is not configured: " + CacheConfiguration.USER_DETAILS_CACHE);
     }
 }
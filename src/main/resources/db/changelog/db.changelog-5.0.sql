@@ -0,0 +1,7 @@
+-- liquibase formatted sql
+
+-- changeset kerher:1 splitStatements:true endDelimiter:;
+create sequence if not exists users_seq start with 1 increment by 50;
+alter sequence users_seq restart with (select coalesce(max(id), 0) + 1 from users);
+alter table users alter column id drop identity;
+alter table users alter column id set default next value for users_seq;
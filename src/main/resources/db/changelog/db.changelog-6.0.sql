@@ -0,0 +1,4 @@
+-- liquibase formatted sql
+
+-- changeset kerher:1
+alter table users add column version bigint default 0 not null;
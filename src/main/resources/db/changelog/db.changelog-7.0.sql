@@ -0,0 +1,5 @@
+-- liquibase formatted sql
+
+-- changeset kerher:1 splitStatements:true endDelimiter:;
+alter table users add column username_lower varchar(24) generated always as (lower(username));
+create index users_username_lower_idx on users (username_lower);
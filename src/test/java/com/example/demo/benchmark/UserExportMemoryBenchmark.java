@@ -0,0 +1,104 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.service.UserExportService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Экспорт 1M строк не должен заметно увеличивать занятую кучу
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.springframework.security=info",
+        "logging.level.org.h2=info"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UserExportMemoryBenchmark {
+    private static final int ROWS = 1_000_000;
+    private static final long MAX_HEAP_GROWTH_BYTES = 64L * 1024 * 1024;
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("insert into users(username, role, password, created_at) "
+                + "select 'export' || x, 'USER', '{noop}export', current_timestamp from system_range(1, ?)", ROWS);
+    }
+
+    @Test
+    void exportAll_ShouldStreamAllRowsWithFlatHeap() throws Exception {
+        long expectedRows = jdbcTemplate.queryForObject("select count(*) from users", Long.class);
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+
+        // Пик занятой кучи снимается после каждой сборки мусора, чтобы не учитывать ещё не собранный мусор
+        AtomicLong peakAfterGc = new AtomicLong(baseline);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread sampler = new Thread(() -> {
+            while (running.get()) {
+                System.gc();
+                peakAfterGc.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        LineCountingOutputStream out = new LineCountingOutputStream();
+        long start = System.nanoTime();
+        sampler.start();
+        userExportService.exportAll(out);
+        running.set(false);
+        sampler.join();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        long growth = peakAfterGc.get() - baseline;
+        System.out.printf("exported %d rows (%d bytes) in %d ms, peak heap growth %d KB%n",
+                out.lines, out.bytes, elapsedMs, growth / 1024);
+
+        assertThat(out.lines).isEqualTo(expectedRows);
+        assertThat(growth).isLessThan(MAX_HEAP_GROWTH_BYTES);
+    }
+
+    private static class LineCountingOutputStream extends OutputStream {
+        private long lines;
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
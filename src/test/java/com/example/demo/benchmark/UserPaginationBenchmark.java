@@ -0,0 +1,101 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.UserReadDto;
+import com.example.demo.service.UserService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Сравнение OFFSET/LIMIT + count(*) и keyset-пагинации на глубоких страницах
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.springframework.security=info",
+        "logging.level.org.h2=info"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UserPaginationBenchmark {
+    private static final int ROWS = 1_000_000;
+    private static final int PAGE_SIZE = 100;
+    private static final int[] PAGES = {1, 10, 100, 1_000, 10_000};
+    private static final int ITERATIONS = 30;
+    private static final int WARMUP_ITERATIONS = 500;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("insert into users(username, role, password, created_at) "
+                + "select 'bench' || x, 'USER', '{noop}bench', current_timestamp from system_range(1, ?)", ROWS);
+    }
+
+    @Test
+    void cursorPaginationLatencyStaysFlat() {
+        double firstPageCursorMs = 0;
+        double lastPageCursorMs = 0;
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            userService.findAll(PageRequest.of(i % 10, PAGE_SIZE));
+            userService.findAllAfter(null, PAGE_SIZE);
+        }
+
+        System.out.printf("%-8s %14s %14s%n", "page", "offset, ms", "cursor, ms");
+        for (int page : PAGES) {
+            String cursor = cursorForPage(page);
+            double offsetMs = medianMillis(() -> userService.findAll(PageRequest.of(page - 1, PAGE_SIZE)));
+            double cursorMs = medianMillis(() -> userService.findAllAfter(cursor, PAGE_SIZE));
+            System.out.printf("%-8d %14.3f %14.3f%n", page, offsetMs, cursorMs);
+
+            if (page == PAGES[0]) {
+                firstPageCursorMs = cursorMs;
+            }
+            lastPageCursorMs = cursorMs;
+        }
+
+        CursorPage<UserReadDto> lastPage = userService.findAllAfter(cursorForPage(PAGES[PAGES.length - 1]), PAGE_SIZE);
+        assertThat(lastPage.getContent()).hasSize(PAGE_SIZE);
+        // Seek по первичному ключу не должен деградировать с глубиной страницы
+        assertThat(lastPageCursorMs).isLessThan(firstPageCursorMs * 5 + 1);
+    }
+
+    private String cursorForPage(int page) {
+        if (page == 1) {
+            return null;
+        }
+        Long lastIdOfPreviousPage = jdbcTemplate.queryForObject(
+                "select id from users order by id limit 1 offset ?", Long.class, (long) (page - 1) * PAGE_SIZE - 1);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastIdOfPreviousPage).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private double medianMillis(Supplier<?> action) {
+        for (int i = 0; i < ITERATIONS; i++) {
+            action.get();
+        }
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            action.get();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[ITERATIONS / 2] / 1_000_000.0;
+    }
+}
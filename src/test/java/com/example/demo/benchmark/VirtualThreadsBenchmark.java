@@ -0,0 +1,147 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.Demo1Application;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Пропускная способность и p99 для /api/users на платформенных и виртуальных потоках
+// при насыщенном пуле соединений H2
+@Tag("benchmark")
+class VirtualThreadsBenchmark {
+    private static final int SEED_ROWS = 100_000;
+    private static final int CONCURRENCY = 400;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(15);
+
+    @Test
+    void compareThreadModels() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%-10s %12s %10s %10s %8s%n", "threads", "req/s", "p50, ms", "p99, ms", "errors");
+        platform.print("platform");
+        virtual.print("virtual");
+
+        assertThat(platform.errors()).isZero();
+        assertThat(virtual.errors()).isZero();
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Demo1Application.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.url=jdbc:h2:mem:bench_" + (virtualThreads ? "virtual" : "platform"),
+                        "spring.datasource.hikari.maximum-pool-size=4",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=warn")
+                .run()) {
+            context.getBean(JdbcTemplate.class).update("insert into users(username, role, password, created_at) "
+                    + "select 'vt' || x, 'USER', '{noop}vt', current_timestamp from system_range(1, ?)", SEED_ROWS);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = login(port);
+
+            drive(client, port, WARMUP, new ArrayList<>(), new AtomicLong());
+            List<Long> latencies = new ArrayList<>();
+            AtomicLong errors = new AtomicLong();
+            long requests = drive(client, port, MEASUREMENT, latencies, errors);
+            return Result.of(latencies, requests, errors.get());
+        }
+    }
+
+    private HttpClient login(int port) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(base(port) + "/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("username=admin&password=1234"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return client;
+    }
+
+    // Закрытая модель нагрузки: CONCURRENCY клиентов шлют запросы без пауз
+    private long drive(HttpClient client, int port, Duration duration, List<Long> latencies, AtomicLong errors)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong requests = new AtomicLong();
+        List<List<Long>> perClient = new ArrayList<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENCY; i++) {
+                List<Long> samples = new ArrayList<>();
+                perClient.add(samples);
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(base(port) + nextPath())).GET().build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        samples.add(System.nanoTime() - start);
+                        requests.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+        }
+        perClient.forEach(latencies::addAll);
+        return requests.get();
+    }
+
+    private String nextPath() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextInt(4) == 0) {
+            return "/api/users?size=20&sort=username&page=" + random.nextInt(100);
+        }
+        return "/api/users/" + (1 + random.nextInt(SEED_ROWS));
+    }
+
+    private String base(int port) {
+        return "http://localhost:" + port;
+    }
+
+    private record Result(double throughput, double p50Ms, double p99Ms, long errors) {
+        static Result of(List<Long> latencies, long requests, long errors) {
+            latencies.sort(null);
+            return new Result(
+                    requests / (double) MEASUREMENT.toSeconds(),
+                    percentile(latencies, 0.50),
+                    percentile(latencies, 0.99),
+                    errors);
+        }
+
+        static double percentile(List<Long> sorted, double quantile) {
+            return sorted.get((int) Math.min(sorted.size() - 1, Math.ceil(quantile * sorted.size()) - 1)) / 1_000_000.0;
+        }
+
+        void print(String name) {
+            System.out.printf("%-10s %12.0f %10.2f %10.2f %8d%n", name, throughput, p50Ms, p99Ms, errors);
+        }
+    }
+}
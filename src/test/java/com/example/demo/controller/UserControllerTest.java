@@ -2,33 +2,54 @@
 
     import com.example.demo.config.SecurityConfiguration;
     import com.example.demo.dto.UserCreateDto;
+    import com.example.demo.dto.UserImportReport;
+    import com.example.demo.dto.UserImportResult;
     import com.example.demo.dto.UserReadDto;
     import com.example.demo.entity.Role;
+    import com.example.demo.exception.UserNotFoundException;
     import com.example.demo.exception.UsernameAlreadyExistsException;
+    import com.example.demo.security.JwtService;
+    import com.example.demo.service.UserChangeFeed;
+    import com.example.demo.service.UserExportService;
+    import com.example.demo.service.UserImportService;
     import com.example.demo.service.UserService;
     import com.fasterxml.jackson.databind.ObjectMapper;
+    import io.micrometer.core.instrument.MeterRegistry;
+    import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
     import org.junit.jupiter.api.Test;
     import org.springframework.beans.factory.annotation.Autowired;
     import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
     import org.springframework.context.annotation.Import;
+    import org.springframework.http.HttpHeaders;
     import org.springframework.http.HttpStatus;
     import org.springframework.http.MediaType;
     import org.springframework.security.test.context.support.WithMockUser;
     import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
     import org.springframework.test.context.bean.override.mockito.MockitoBean;
     import org.springframework.test.web.servlet.MockMvc;
+    import org.springframework.test.web.servlet.MvcResult;
 
+    import java.io.InputStream;
+    import java.util.Iterator;
+    import java.util.List;
+    import java.util.concurrent.CompletableFuture;
+
+    import static org.assertj.core.api.Assertions.assertThat;
     import static org.mockito.ArgumentMatchers.any;
     import static org.mockito.BDDMockito.given;
     import static org.mockito.Mockito.times;
     import static org.mockito.Mockito.verify;
+    import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+    import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
     import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
     import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+    import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
     import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+    import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
     import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
     @WebMvcTest(UserController.class)
-    @Import(SecurityConfiguration.class)
+    @Import({SecurityConfiguration.class, SimpleMeterRegistry.class})
     class UserControllerTest {
 
         @Autowired
@@ -37,13 +58,28 @@
         @MockitoBean
         private UserService userService;
 
+        @MockitoBean
+        private UserImportService userImportService;
+
+        @MockitoBean
+        private UserExportService userExportService;
+
+        @MockitoBean
+        private UserChangeFeed userChangeFeed;
+
         @MockitoBean
         private AuthenticationSuccessHandler successHandler;
 
+        @MockitoBean
+        private JwtService jwtService;
+
+        @Autowired
+        private MeterRegistry meterRegistry;
+
         private final ObjectMapper mapper = new ObjectMapper();
 
         @Test
-        @WithMockUser(roles = "ADMIN")
+        @WithMockUser(authorities = "ADMIN")
         void save_ShouldReturnStatusCreated_WhenSuccess() throws Exception {
             UserReadDto userReadDto = UserReadDto.builder()
                     .id(1L)
@@ -56,11 +92,16 @@
                     .role(Role.USER)
                     .build();
 
-            given(userService.save(any(UserCreateDto.class))).willReturn(userReadDto);
+            given(userService.save(any(UserCreateDto.class)))
+                    .willReturn(CompletableFuture.completedFuture(userReadDto));
 
-            mockMvc.perform(post("/api/users")
+            MvcResult mvcResult = mockMvc.perform(post("/api/users")
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(mapper.writeValueAsString(userCreateDto)))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(mvcResult))
                     .andExpect(status().isCreated())
                     .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                     .andExpect(jsonPath("$.id").value(1L))
@@ -70,7 +111,7 @@
         }
 
         @Test
-        @WithMockUser(roles = "ADMIN")
+        @WithMockUser(authorities = "ADMIN")
         void save_ShouldReturnStatusConflict_WhenUsernameAlreadyExistsExceptionThrown() throws Exception {
             UserCreateDto userCreateDto = UserCreateDto.builder()
                     .username("testUsername")
@@ -93,10 +134,117 @@
                     .andExpect(jsonPath("$.path").value("/api/users"));
 
             verify(userService, times(1)).save(any(UserCreateDto.class));
+            assertThat(meterRegistry.get("api.exceptions")
+                    .tag("exception", "UsernameAlreadyExistsException")
+                    .tag("error", "USERNAME_ALREADY_EXISTS")
+                    .counter().count()).isEqualTo(1);
+        }
+
+        @Test
+        @WithMockUser(authorities = "ADMIN")
+        @SuppressWarnings("unchecked")
+        void importUsers_ShouldReturnReport_WhenJsonArrayIsPosted() throws Exception {
+            List<UserCreateDto> users = List.of(
+                    new UserCreateDto("newUser", "password", Role.USER),
+                    new UserCreateDto("existingUser", "password", Role.USER));
+            given(userImportService.importUsers(any(Iterator.class))).willReturn(UserImportReport.builder()
+                    .created(1)
+                    .failed(1)
+                    .results(List.of(
+                            UserImportResult.builder().index(0).username("newUser").created(true).build(),
+                            UserImportResult.builder().index(1).username("existingUser")
+                                    .error("Username already exists: existingUser").build()))
+                    .build());
+
+            mockMvc.perform(post("/api/users/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(users)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.created").value(1))
+                    .andExpect(jsonPath("$.failed").value(1))
+                    .andExpect(jsonPath("$.results[1].error").value("Username already exists: existingUser"));
+
+            verify(userImportService, times(1)).importUsers(any(Iterator.class));
+        }
+
+        @Test
+        @WithMockUser(authorities = "ADMIN")
+        void importUsersNdjson_ShouldReturnPartialReport_WhenLineIsMalformed() throws Exception {
+            given(userImportService.importNdjson(any(InputStream.class))).willReturn(UserImportReport.builder()
+                    .created(1)
+                    .failed(1)
+                    .results(List.of(
+                            UserImportResult.builder().index(0).username("newUser").created(true).build(),
+                            UserImportResult.builder().index(1)
+                                    .error("Malformed JSON at line 2: Unexpected end-of-input").build()))
+                    .build());
+
+            mockMvc.perform(post("/api/users/bulk")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content("{\"username\":\"newUser\",\"password\":\"password\",\"role\":\"USER\"}\n"
+                                    + "{\"username\":\n"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.created").value(1))
+                    .andExpect(jsonPath("$.failed").value(1))
+                    .andExpect(jsonPath("$.results[1].error")
+                            .value("Malformed JSON at line 2: Unexpected end-of-input"));
+
+            verify(userImportService, times(1)).importNdjson(any(InputStream.class));
+        }
+
+        @Test
+        @WithMockUser
+        void findById_ShouldReturnBodyWithETag_WhenIfNoneMatchIsAbsent() throws Exception {
+            UserReadDto userReadDto = UserReadDto.builder()
+                    .id(1L)
+                    .username("testUsername")
+                    .version(3L)
+                    .build();
+
+            given(userService.findById(1L)).willReturn(userReadDto);
+
+            mockMvc.perform(get("/api/users/1"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "W/\"3\""))
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                    .andExpect(jsonPath("$.username").value("testUsername"))
+                    .andExpect(jsonPath("$.version").doesNotExist());
+
+            verify(userService, times(1)).findById(1L);
         }
 
         @Test
-        void findById() {
+        @WithMockUser
+        void findById_ShouldReturnStatusNotFound_WhenUserNotFoundExceptionThrown() throws Exception {
+            given(userService.findById(42L))
+                    .willThrow(new UserNotFoundException("User not found with id: 42"));
+
+            mockMvc.perform(get("/api/users/42"))
+                    .andExpect(status().isNotFound())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.timestamp").isNotEmpty())
+                    .andExpect(jsonPath("$.status").value(HttpStatus.NOT_FOUND.value()))
+                    .andExpect(jsonPath("$.error").value("USER_NOT_FOUND"))
+                    .andExpect(jsonPath("$.message").value("User not found with id: 42"))
+                    .andExpect(jsonPath("$.path").value("/api/users/42"));
+        }
+
+        @Test
+        @WithMockUser
+        void findById_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+            given(userService.findById(1L)).willReturn(UserReadDto.builder()
+                    .id(1L)
+                    .username("testUsername")
+                    .version(3L)
+                    .build());
+
+            mockMvc.perform(get("/api/users/1").header(HttpHeaders.IF_NONE_MATCH, "W/\"3\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, "W/\"3\""))
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                    .andExpect(content().string(""));
+
+            verify(userService, times(1)).findById(1L);
         }
 
         @Test
@@ -0,0 +1,102 @@
+package com.example.demo.datasource;
+
+import com.example.demo.dto.UserEditDto;
+import com.example.demo.entity.Role;
+import com.example.demo.exception.UserNotFoundException;
+import com.example.demo.service.UserService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Две независимые H2: строка, которая есть только на реплике, показывает, куда ушло чтение
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing_primary_db",
+        "datasource.routing.enabled=true",
+        "datasource.routing.replica.jdbc-url=jdbc:h2:mem:routing_replica_db",
+        "datasource.routing.read-your-writes-window=1m"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReadWriteRoutingDataSourceTest {
+    private static final long REPLICA_ONLY_ID = 1_000_000L;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    void createReplicaSchema() throws Exception {
+        // Реплика получила бы схему репликацией; здесь накатываем тот же changelog вручную
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(replicaDataSource);
+        liquibase.setChangeLog("classpath:/db/changelog/db.changelog-master.yaml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        new JdbcTemplate(replicaDataSource).update(
+                "insert into users(id, username, password, role) values (?, 'replicaOnly', '{noop}x', 'USER')",
+                REPLICA_ONLY_ID);
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Read-only чтение должно уходить на реплику")
+    void findById_ShouldReadFromReplica() {
+        double before = routed("replica", "read-only");
+
+        assertThat(userService.findById(REPLICA_ONLY_ID).getUsername()).isEqualTo("replicaOnly");
+
+        assertThat(routed("replica", "read-only")).isGreaterThan(before);
+        assertThat(new JdbcTemplate(primaryDataSource)
+                .queryForObject("select count(*) from users where id = ?", Long.class, REPLICA_ONLY_ID)).isZero();
+    }
+
+    @Test
+    @DisplayName("После своей записи user должен читать с primary в пределах окна read-your-writes")
+    void findById_ShouldReadFromPrimary_WhenCurrentUserHasJustWritten() {
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                "admin", null, Collections.singleton(Role.ADMIN)));
+        Long aliceId = new JdbcTemplate(primaryDataSource)
+                .queryForObject("select id from users where username = 'alice'", Long.class);
+
+        userService.update(aliceId, new UserEditDto("aliceRenamed", "password", Role.USER)).join();
+
+        assertThat(userService.findById(aliceId).getUsername()).isEqualTo("aliceRenamed");
+        assertThrows(UserNotFoundException.class, () -> userService.findById(REPLICA_ONLY_ID));
+        assertThat(routed("primary", "read-your-writes")).isPositive();
+    }
+
+    private double routed(String target, String reason) {
+        return meterRegistry.get("datasource.routing").tag("target", target).tag("reason", reason).counter().count();
+    }
+}
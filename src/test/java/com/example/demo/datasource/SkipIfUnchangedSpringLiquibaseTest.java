@@ -0,0 +1,85 @@
+package com.example.demo.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SkipIfUnchangedSpringLiquibaseTest {
+    private static final String CHANGE_LOG = "classpath:/db/changelog/db.changelog-master.yaml";
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:migration_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        migrate(false);
+        // Update всегда заново создаёт таблицу блокировки, пропуск её не трогает
+        jdbcTemplate.execute("drop table databasechangeloglock");
+    }
+
+    @Test
+    @DisplayName("Liquibase не должен выполнять update, когда применённые changeset и checksum совпадают с changelog")
+    void afterPropertiesSet_ShouldSkipUpdate_WhenChangeLogIsUnchanged() throws Exception {
+        migrate(true);
+
+        assertThat(lockTableExists()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Liquibase должен выполнять update, когда checksum в базе расходится с changelog")
+    void afterPropertiesSet_ShouldRunUpdate_WhenChecksumDiffers() throws Exception {
+        jdbcTemplate.update("update databasechangelog set md5sum = null where orderexecuted = 1");
+
+        migrate(true);
+
+        assertThat(lockTableExists()).isTrue();
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from databasechangelog where md5sum is null", Integer.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("На новой базе без DATABASECHANGELOG Liquibase должен выполнять update")
+    void afterPropertiesSet_ShouldRunUpdate_WhenChangeLogTableIsMissing() throws Exception {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:migration_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        migrate(true);
+
+        assertThat(lockTableExists()).isTrue();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from databasechangelog", Integer.class)).isPositive();
+    }
+
+    @Test
+    @DisplayName("Без skip-if-unchanged Liquibase должен выполнять update всегда")
+    void afterPropertiesSet_ShouldRunUpdate_WhenSkipIsDisabled() throws Exception {
+        migrate(false);
+
+        assertThat(lockTableExists()).isTrue();
+    }
+
+    private void migrate(boolean skipIfUnchanged) throws Exception {
+        SkipIfUnchangedSpringLiquibase liquibase = new SkipIfUnchangedSpringLiquibase();
+        liquibase.setSkipIfUnchanged(skipIfUnchanged);
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog(CHANGE_LOG);
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+    }
+
+    private boolean lockTableExists() {
+        return jdbcTemplate.queryForObject("select count(*) from information_schema.tables "
+                + "where lower(table_name) = 'databasechangeloglock'", Integer.class) > 0;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.demo.datasource;
+
+import com.example.demo.entity.Role;
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "datasource.statement-budget.action=fail",
+        "datasource.statement-budget.response-headers=true",
+        "datasource.statement-budget.endpoints.[UserController#search]=0"
+})
+@AutoConfigureMockMvc
+class SqlStatementBudgetFilterTest {
+    private static final String USERNAME = "budgetUser";
+    private static final String CREATED_USERNAME = "budgetCreatedUser";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Long id;
+
+    @BeforeEach
+    void setUp() {
+        id = userRepository.saveAndFlush(User.builder()
+                .username(USERNAME)
+                .password("{noop}password")
+                .role(Role.USER)
+                .createdAt(LocalDateTime.now())
+                .build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findById(id).ifPresent(userRepository::delete);
+        userRepository.findUserByUsername(CREATED_USERNAME).ifPresent(userRepository::delete);
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    @DisplayName("DELETE в пределах бюджета должен записывать число SQL в метрику с тегом метода контроллера")
+    void delete_ShouldRecordStatements_WhenWithinBudget() throws Exception {
+        mockMvc.perform(delete("/api/users/{id}", id))
+                .andExpect(status().isNoContent());
+
+        DistributionSummary statements = meterRegistry.get("sql.request.statements")
+                .tag("handler", "UserController#delete")
+                .summary();
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.max()).isBetween(1.0, 2.0);
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("С response-headers ответ должен содержать число SQL и время базы")
+    void findById_ShouldExposeStatisticsHeaders_WhenEnabled() throws Exception {
+        mockMvc.perform(get("/api/users/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(SqlStatisticsResponseHeaderAdvice.STATEMENTS_HEADER))
+                .andExpect(header().exists(SqlStatisticsResponseHeaderAdvice.TIME_HEADER));
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("В режиме fail превышение бюджета должно ронять запрос")
+    void search_ShouldFail_WhenBudgetIsExceeded() {
+        assertThatThrownBy(() -> mockMvc.perform(get("/api/users/search").param("prefix", "budget")))
+                .isInstanceOf(SqlStatementBudgetExceededException.class)
+                .hasMessageContaining("UserController#search")
+                .hasMessageContaining("budget is 0");
+        assertThat(meterRegistry.get("sql.request.budget.exceeded")
+                .tag("handler", "UserController#search")
+                .counter()
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    @DisplayName("SQL из applicationTaskExecutor должны засчитываться исходному запросу")
+    void save_ShouldCountStatementsFromTaskExecutor() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + CREATED_USERNAME + "\",\"password\":\"password\",\"role\":\"USER\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists(SqlStatisticsResponseHeaderAdvice.STATEMENTS_HEADER));
+
+        DistributionSummary statements = meterRegistry.get("sql.request.statements")
+                .tag("handler", "UserController#save")
+                .summary();
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.totalAmount()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Одинаковый SQL больше порога должен определяться как вероятный N+1")
+    void getRepeatedStatements_ShouldReturnStatementsAboveThreshold() {
+        RequestSqlStatistics statistics = new RequestSqlStatistics();
+        for (int i = 0; i < 6; i++) {
+            statistics.recordStatement("select * from users where id=?");
+        }
+        statistics.recordStatement("select count(*) from users");
+
+        assertThat(statistics.getStatementCount()).isEqualTo(7);
+        assertThat(statistics.getRepeatedStatements(5)).containsOnlyKeys("select * from users where id=?");
+    }
+}
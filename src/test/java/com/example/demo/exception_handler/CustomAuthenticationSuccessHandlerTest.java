@@ -0,0 +1,65 @@
+package com.example.demo.exception_handler;
+
+import com.example.demo.security.JwtService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class CustomAuthenticationSuccessHandlerTest {
+    private final CustomAuthenticationSuccessHandler handler = new CustomAuthenticationSuccessHandler(
+            new HttpMessageConverters(false, List.of(
+                    new MappingJackson2HttpMessageConverter(),
+                    new MappingJackson2CborHttpMessageConverter())),
+            mock(JwtService.class));
+    private final Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+            "testUsername", null, List.of(new SimpleGrantedAuthority("ADMIN")));
+
+    @Test
+    @DisplayName("Неразбираемый Accept должен давать JSON, а не ошибку")
+    void onAuthenticationSuccess_ShouldWriteJson_WhenAcceptIsMalformed() throws Exception {
+        MockHttpServletResponse response = login("not-a-media-type");
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentType()).startsWith(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(response.getContentAsString()).contains("\"username\":\"testUsername\"");
+    }
+
+    @Test
+    @DisplayName("Формат должен выбираться по q, а не по порядку в Accept")
+    void onAuthenticationSuccess_ShouldRespectQualityValues() throws Exception {
+        MockHttpServletResponse response = login("application/json;q=0.1, application/cbor;q=0.9");
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentType()).startsWith("application/cbor");
+    }
+
+    @Test
+    @DisplayName("Тип с q=0 не должен выбираться")
+    void onAuthenticationSuccess_ShouldReturnNotAcceptable_WhenOnlyTypeHasZeroQuality() throws Exception {
+        MockHttpServletResponse response = login("application/json;q=0");
+
+        assertThat(response.getStatus()).isEqualTo(406);
+    }
+
+    private MockHttpServletResponse login(String accept) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+        request.addHeader(HttpHeaders.ACCEPT, accept);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        handler.onAuthenticationSuccess(request, response, authentication);
+        return response;
+    }
+}
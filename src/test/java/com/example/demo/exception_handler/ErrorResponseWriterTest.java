@@ -0,0 +1,74 @@
+package com.example.demo.exception_handler;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorResponseWriterTest {
+    private final Clock clock = Clock.fixed(Instant.parse("2026-03-01T10:15:30.120Z"), ZoneOffset.UTC);
+    private final ErrorResponseWriter writer = new ErrorResponseWriter(clock);
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            // Как в Spring Boot: даты строками ISO-8601
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    @DisplayName("Шаблон должен давать тот же JSON, что и сериализация ErrorResponse, включая экранирование")
+    void write_ShouldMatchJacksonSerialization() throws Exception {
+        String message = "Username already exists: \"bob\\\né\u0001";
+        String path = "/api/users/путь";
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(writer.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("USERNAME_ALREADY_EXISTS")
+                .message(message)
+                .path(path)
+                .build();
+
+        byte[] body = writer.write(HttpStatus.CONFLICT, "USERNAME_ALREADY_EXISTS", message, path);
+
+        assertThat(new String(body, StandardCharsets.UTF_8))
+                .isEqualTo(objectMapper.writeValueAsString(errorResponse));
+    }
+
+    @Test
+    @DisplayName("Поле message должно опускаться, когда сообщения нет")
+    void write_ShouldOmitMessage_WhenMessageIsNull() throws Exception {
+        byte[] body = writer.write(HttpStatus.NOT_FOUND, "USER_NOT_FOUND", null, "/api/users/42");
+
+        assertThat(objectMapper.readTree(body).has("message")).isFalse();
+        assertThat(objectMapper.readTree(body).get("path").asText()).isEqualTo("/api/users/42");
+    }
+
+    @Test
+    @DisplayName("Шаблон должен использоваться, только когда клиент в первую очередь принимает JSON")
+    void isJsonAccepted_ShouldFollowAcceptHeader() {
+        assertThat(writer.isJsonAccepted(request(null))).isTrue();
+        assertThat(writer.isJsonAccepted(request("*/*"))).isTrue();
+        assertThat(writer.isJsonAccepted(request("application/json"))).isTrue();
+        assertThat(writer.isJsonAccepted(request("application/cbor, application/json;q=0.5"))).isFalse();
+        assertThat(writer.isJsonAccepted(request("application/x-jackson-smile"))).isFalse();
+    }
+
+    private static MockHttpServletRequest request(String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/42");
+        if (accept != null) {
+            request.addHeader(HttpHeaders.ACCEPT, accept);
+        }
+        return request;
+    }
+}
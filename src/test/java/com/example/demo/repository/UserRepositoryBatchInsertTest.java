@@ -0,0 +1,96 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Role;
+import com.example.demo.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserRepositoryBatchInsertTest {
+    private static final int USERS = 120;
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Сохранение N user должно отправлять insert пачками и брать id из users_seq блоками")
+    void saveAll_ShouldBatchInsertsAndPoolSequenceCalls() {
+        List<User> users = IntStream.range(0, USERS)
+                .mapToObj(i -> User.builder()
+                        .username("batchUser" + i)
+                        .password("{noop}password")
+                        .role(Role.USER)
+                        .createdAt(LocalDateTime.now())
+                        .build())
+                .toList();
+
+        userRepository.saveAllAndFlush(users);
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(USERS);
+        // 3 выборки users_seq по 50 id + 3 пачки insert по batch_size 50, а не 120 + 120 запросов
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+        assertThat(users).extracting(User::getId).doesNotHaveDuplicates().doesNotContainNull();
+    }
+
+    @Test
+    @DisplayName("Вставка без id в обход Hibernate не должна конфликтовать с id, выданными Hibernate")
+    void insertWithoutId_ShouldNotCollideWithPooledIds() {
+        User saved = userRepository.saveAndFlush(User.builder()
+                .username("pooledUser")
+                .password("{noop}password")
+                .role(Role.USER)
+                .build());
+
+        jdbcTemplate.update("insert into users(username, password, role) values ('jdbcUser', '{noop}password', 'USER')");
+        Long jdbcId = jdbcTemplate.queryForObject("select id from users where username = 'jdbcUser'", Long.class);
+        assertThat(jdbcId).isGreaterThan(saved.getId());
+
+        // Больше allocationSize: Hibernate дорасходует текущий блок и возьмёт из users_seq следующий
+        int count = ALLOCATION_SIZE + 10;
+        List<Long> ids = userRepository.saveAllAndFlush(IntStream.range(0, count)
+                        .mapToObj(i -> User.builder()
+                                .username("pooledUser" + (i + 2))
+                                .password("{noop}password")
+                                .role(Role.USER)
+                                .build())
+                        .toList())
+                .stream()
+                .map(User::getId)
+                .toList();
+
+        assertThat(ids).doesNotContain(jdbcId);
+        // Ниже jdbcId может быть только остаток блока, взятого до вставки, всё остальное — из блоков выше jdbcId
+        assertThat(ids).filteredOn(id -> id < jdbcId).hasSizeLessThan(ALLOCATION_SIZE);
+        assertThat(ids).filteredOn(id -> id > jdbcId).hasSizeGreaterThan(count - ALLOCATION_SIZE);
+        assertThat(userRepository.count())
+                .isEqualTo(jdbcTemplate.queryForObject("select count(distinct id) from users", Long.class));
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.security;
+
+import com.example.demo.entity.Role;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Encoders;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtServiceTest {
+
+    private final TestClock clock = new TestClock(Instant.parse("2026-01-01T00:00:00.100Z"));
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setEnabled(true);
+        properties.setSecret(Encoders.BASE64.encode(Jwts.SIG.HS256.key().build().getEncoded()));
+        properties.setTtl(Duration.ofMinutes(5));
+        jwtService = new JwtService(properties, new SimpleMeterRegistry(), clock);
+    }
+
+    @Test
+    @DisplayName("Токен должен восстанавливаться в Authentication с тем же username и ролью")
+    void parseToken_ShouldRestoreAuthentication_WhenTokenIsValid() {
+        Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+                "testUsername", null, Collections.singleton(Role.ADMIN));
+
+        Authentication result = jwtService.parseToken(jwtService.generateToken(authentication));
+
+        assertThat(result.isAuthenticated()).isTrue();
+        assertThat(result.getName()).isEqualTo("testUsername");
+        assertThat(result.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ADMIN");
+    }
+
+    @Test
+    @DisplayName("Метод должен выбрасывать JwtException, когда подпись токена изменена")
+    void parseToken_ShouldThrowException_WhenSignatureIsTampered() {
+        Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+                "testUsername", null, Collections.singleton(Role.USER));
+        String token = jwtService.generateToken(authentication);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtService.parseToken(tampered));
+    }
+
+    @Test
+    @DisplayName("Отозванный при logout токен должен отклоняться, а остальные токены пользователя — нет")
+    void parseToken_ShouldThrowException_WhenTokenIsRevoked() {
+        Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+                "testUsername", null, Collections.singleton(Role.USER));
+        String revoked = jwtService.generateToken(authentication);
+        String other = jwtService.generateToken(authentication);
+
+        jwtService.revokeToken(revoked);
+
+        assertThrows(JwtException.class, () -> jwtService.parseToken(revoked));
+        assertThat(jwtService.parseToken(other).getName()).isEqualTo("testUsername");
+    }
+
+    @Test
+    @DisplayName("После отзыва пользователя должны отклоняться все его ранее выпущенные токены")
+    void parseToken_ShouldThrowException_WhenSubjectIsRevoked() {
+        String token = jwtService.generateToken(UsernamePasswordAuthenticationToken.authenticated(
+                "testUsername", null, Collections.singleton(Role.ADMIN)));
+        String otherUserToken = jwtService.generateToken(UsernamePasswordAuthenticationToken.authenticated(
+                "otherUsername", null, Collections.singleton(Role.USER)));
+
+        jwtService.revokeSubject("testUsername");
+
+        assertThrows(JwtException.class, () -> jwtService.parseToken(token));
+        assertThat(jwtService.parseToken(otherUserToken).getName()).isEqualTo("otherUsername");
+    }
+
+    @Test
+    @DisplayName("Токен, выпущенный после отзыва пользователя в ту же секунду, должен приниматься")
+    void parseToken_ShouldAcceptToken_WhenIssuedInSameSecondAfterSubjectRevocation() {
+        Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+                "testUsername", null, Collections.singleton(Role.USER));
+        String revoked = jwtService.generateToken(authentication);
+
+        jwtService.revokeSubject("testUsername");
+        clock.advance(Duration.ofMillis(1));
+        String reissued = jwtService.generateToken(authentication);
+
+        assertThrows(JwtException.class, () -> jwtService.parseToken(revoked));
+        assertThat(jwtService.parseToken(reissued).getName()).isEqualTo("testUsername");
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginThrottleTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private LoginThrottle loginThrottle;
+
+    @BeforeEach
+    void setUp() {
+        LoginThrottlingProperties properties = new LoginThrottlingProperties();
+        properties.setPerUsername(new LoginThrottlingProperties.Bucket(3, Duration.ofSeconds(3)));
+        properties.setPerIp(new LoginThrottlingProperties.Bucket(10, Duration.ofSeconds(10)));
+        loginThrottle = new LoginThrottle(properties, nanos::get);
+    }
+
+    @Test
+    @DisplayName("Попытки сверх capacity для одного username должны отклоняться до пополнения бакета")
+    void tryAcquire_ShouldRejectUsername_WhenBucketIsExhausted() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(loginThrottle.tryAcquire("10.0.0.1", "alice")).isZero();
+        }
+
+        assertThat(loginThrottle.tryAcquire("10.0.0.1", "alice")).isEqualTo(Duration.ofSeconds(1).toNanos());
+        assertThat(loginThrottle.tryAcquire("10.0.0.1", "bob")).isZero();
+
+        nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(loginThrottle.tryAcquire("10.0.0.1", "alice")).isZero();
+        assertThat(loginThrottle.tryAcquire("10.0.0.1", "alice")).isPositive();
+    }
+
+    @Test
+    @DisplayName("Попытки с одного IP должны отклоняться независимо от username, когда бакет IP исчерпан")
+    void tryAcquire_ShouldRejectIp_WhenBucketIsExhausted() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(loginThrottle.tryAcquire("10.0.0.1", "user" + i)).isZero();
+        }
+
+        assertThat(loginThrottle.tryAcquire("10.0.0.1", "anotherUser")).isPositive();
+        assertThat(loginThrottle.tryAcquire("10.0.0.2", "anotherUser")).isZero();
+    }
+
+    @Test
+    @DisplayName("Возвращённые после успешного входа токены не должны расходовать бакет и копиться сверх capacity")
+    void refund_ShouldNotChargeSuccessfulLogins() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(loginThrottle.tryAcquire("10.0.0.1", "alice")).isZero();
+            loginThrottle.refund("10.0.0.1", "alice");
+        }
+        loginThrottle.refund("10.0.0.1", "alice");
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(loginThrottle.tryAcquire("10.0.0.1", "alice")).isZero();
+        }
+        assertThat(loginThrottle.tryAcquire("10.0.0.1", "alice")).isPositive();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TimedPasswordEncoder passwordEncoder = new TimedPasswordEncoder(
+            PasswordEncoderFactories.createDelegatingPasswordEncoder(), "bcrypt", meterRegistry);
+
+    @Test
+    @DisplayName("encode и matches должны записываться в отдельные таймеры с тегом алгоритма из префикса хэша")
+    void encodeAndMatches_ShouldRecordTimersTaggedByAlgorithm() {
+        String encoded = passwordEncoder.encode("password");
+
+        assertThat(passwordEncoder.matches("password", encoded)).isTrue();
+        assertThat(passwordEncoder.matches("alice123", "{noop}alice123")).isTrue();
+
+        assertThat(meterRegistry.get("password.encoder.encode").tag("algorithm", "bcrypt").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("password.encoder.matches").tag("algorithm", "bcrypt").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("password.encoder.matches").tag("algorithm", "noop").timer().count())
+                .isEqualTo(1);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.demo.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenRevocationListTest {
+    private static final Duration PERIOD = Duration.ofMinutes(10);
+
+    private final TestClock clock = new TestClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties.Revocation properties = new JwtProperties.Revocation();
+        properties.setExpectedRevocations(1000);
+        revocationList = new TokenRevocationList(properties, PERIOD, clock);
+    }
+
+    @Test
+    @DisplayName("Токен должен считаться отозванным, только если выпущен не позже момента отзыва")
+    void isRevoked_ShouldCompareIssuedAtWithRevocationTime() {
+        Instant revokedAt = clock.instant();
+        revocationList.revoke("sub:alice", revokedAt, revokedAt.plus(PERIOD));
+
+        assertThat(revocationList.isRevoked("sub:alice", revokedAt.minusSeconds(60))).isTrue();
+        assertThat(revocationList.isRevoked("sub:alice", revokedAt)).isTrue();
+        assertThat(revocationList.isRevoked("sub:alice", revokedAt.plusMillis(1))).isFalse();
+        assertThat(revocationList.isRevoked("sub:bob", revokedAt.minusSeconds(60))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Отзыв должен действовать период после записи и пропадать через два периода")
+    void isRevoked_ShouldDropRevocations_AfterTwoPeriods() {
+        Instant issuedAt = clock.instant();
+        revocationList.revoke("jti-1", issuedAt, issuedAt.plus(PERIOD));
+
+        clock.advance(PERIOD.plusSeconds(1));
+        revocationList.revoke("jti-2", clock.instant(), clock.instant().plus(PERIOD));
+        assertThat(revocationList.isRevoked("jti-1", issuedAt)).isTrue();
+
+        clock.advance(PERIOD);
+        revocationList.revoke("jti-3", clock.instant(), clock.instant().plus(PERIOD));
+        assertThat(revocationList.isRevoked("jti-1", issuedAt)).isFalse();
+        assertThat(revocationList.isRevoked("jti-2", issuedAt)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Ни один из тысячи отозванных ключей не должен теряться")
+    void isRevoked_ShouldFindEveryRevokedKey() {
+        Instant now = clock.instant();
+        for (int i = 0; i < 1000; i++) {
+            revocationList.revoke("jti-" + i, now, now.plus(PERIOD));
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(revocationList.mightBeRevoked("jti-" + i)).isTrue();
+            assertThat(revocationList.isRevoked("jti-" + i, now)).isTrue();
+        }
+        assertThat(revocationList.isRevoked("jti-1000", now)).isFalse();
+    }
+
+    @Test
+    @DisplayName("При переполнении поколения должны отзываться все токены, выпущенные до отзыва")
+    void revoke_ShouldRevokeAllIssuedTokens_WhenGenerationIsFull() {
+        Instant now = clock.instant();
+        int revoked = 0;
+        while (revocationList.revoke("jti-" + revoked, now, now.plus(PERIOD))) {
+            revoked++;
+        }
+
+        assertThat(revoked).isGreaterThanOrEqualTo(1000);
+        assertThat(revocationList.isRevoked("jti-" + revoked, now)).isTrue();
+        assertThat(revocationList.isRevoked("sub:alice", now.minusSeconds(60))).isTrue();
+        assertThat(revocationList.isRevoked("sub:alice", now.plusMillis(1))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Метод должен выбрасывать IllegalArgumentException, когда отзыв переживает период")
+    void revoke_ShouldThrowException_WhenExpirationExceedsPeriod() {
+        Instant now = clock.instant();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> revocationList.revoke("jti-1", now, now.plus(PERIOD).plusSeconds(1)));
+    }
+}
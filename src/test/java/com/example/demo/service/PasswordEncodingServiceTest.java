@@ -0,0 +1,111 @@
+package com.example.demo.service;
+
+import com.example.demo.config.PasswordEncodingProperties;
+import com.example.demo.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PasswordEncodingServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private PasswordEncodingService passwordEncodingService;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        passwordEncodingService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Метод должен хэшировать пароль в отдельном пуле и записывать время хэширования")
+    void encodeAsync_ShouldEncodeOnDedicatedPool() {
+        release.countDown();
+        passwordEncodingService = createService(PasswordEncodingProperties.RejectionPolicy.CALLER_RUNS);
+
+        String encoded = passwordEncodingService.encodeAsync("password").join();
+
+        assertThat(encoded).startsWith("password-encoder-").endsWith(":password");
+        assertThat(meterRegistry.get("password.encoding.duration").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Метод должен выбрасывать ServiceUnavailableException, когда очередь заполнена и политика ABORT")
+    void encodeAsync_ShouldThrowException_WhenQueueIsFullAndPolicyIsAbort() {
+        passwordEncodingService = createService(PasswordEncodingProperties.RejectionPolicy.ABORT);
+
+        CompletableFuture<String> running = passwordEncodingService.encodeAsync("first");
+        CompletableFuture<String> queued = passwordEncodingService.encodeAsync("second");
+
+        assertThrows(ServiceUnavailableException.class, () -> passwordEncodingService.encodeAsync("third"));
+
+        release.countDown();
+        assertThat(running.join()).endsWith(":first");
+        assertThat(queued.join()).endsWith(":second");
+    }
+
+    @Test
+    @DisplayName("Метод должен применять к задачам пула все TaskDecorator, а не только единственный")
+    void encodeAsync_ShouldApplyEveryTaskDecorator() {
+        release.countDown();
+        List<String> applied = new CopyOnWriteArrayList<>();
+        TaskDecorator first = task -> () -> {
+            applied.add("first");
+            task.run();
+        };
+        TaskDecorator second = task -> () -> {
+            applied.add("second");
+            task.run();
+        };
+        passwordEncodingService = createService(PasswordEncodingProperties.RejectionPolicy.CALLER_RUNS,
+                List.of(first, second));
+
+        passwordEncodingService.encodeAsync("password").join();
+
+        assertThat(applied).containsExactlyInAnyOrder("first", "second");
+    }
+
+    private PasswordEncodingService createService(PasswordEncodingProperties.RejectionPolicy policy) {
+        return createService(policy, List.of());
+    }
+
+    private PasswordEncodingService createService(PasswordEncodingProperties.RejectionPolicy policy,
+                                                  List<TaskDecorator> taskDecorators) {
+        PasswordEncodingProperties properties = new PasswordEncodingProperties();
+        properties.setPoolSize(1);
+        properties.setQueueCapacity(1);
+        properties.setRejectionPolicy(policy);
+        return new PasswordEncodingService(new BlockingPasswordEncoder(), properties, meterRegistry, taskDecorators);
+    }
+
+    // Кодирует пароль как "<имя потока>:<пароль>" и ждёт разрешения теста
+    private class BlockingPasswordEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Thread.currentThread().getName() + ":" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.endsWith(":" + rawPassword);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.demo.service;
+
+import com.example.demo.config.UserChangeFeedProperties;
+import com.example.demo.dto.UserChangeEvent;
+import com.example.demo.dto.UserReadDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class UserChangeFeedTest {
+    private static final int REPLAY_BUFFER_SIZE = 64;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UserChangeFeed userChangeFeed;
+
+    @BeforeEach
+    void setUp() {
+        UserChangeFeedProperties properties = new UserChangeFeedProperties();
+        properties.setReplayBufferSize(REPLAY_BUFFER_SIZE);
+        userChangeFeed = new UserChangeFeed(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userChangeFeed.shutdown();
+    }
+
+    @Test
+    @DisplayName("Подписчик без Last-Event-ID должен получать только новые события по порядку")
+    void subscribe_ShouldDeliverNewEventsInOrder_WhenLastEventIdIsAbsent() {
+        publish(UserChangeEvent.Type.CREATED, 1);
+        RecordingEmitter emitter = new RecordingEmitter();
+        userChangeFeed.subscribe(null, emitter);
+
+        publish(UserChangeEvent.Type.CREATED, 2);
+        publish(UserChangeEvent.Type.UPDATED, 2);
+        publish(UserChangeEvent.Type.DELETED, 2);
+
+        await().atMost(TIMEOUT).until(() -> emitter.events.size() == 3);
+        assertThat(emitter.sequences()).containsExactly(2L, 3L, 4L);
+        assertThat(emitter.events).extracting(UserChangeEvent::getType).containsExactly(
+                UserChangeEvent.Type.CREATED, UserChangeEvent.Type.UPDATED, UserChangeEvent.Type.DELETED);
+    }
+
+    @Test
+    @DisplayName("Подписчик с Last-Event-ID должен дочитать пропущенные события из буфера")
+    void subscribe_ShouldReplayMissedEvents_WhenLastEventIdIsPresent() {
+        for (long id = 1; id <= 5; id++) {
+            publish(UserChangeEvent.Type.CREATED, id);
+        }
+        RecordingEmitter emitter = new RecordingEmitter();
+        userChangeFeed.subscribe(2L, emitter);
+
+        await().atMost(TIMEOUT).until(() -> emitter.events.size() == 3);
+        assertThat(emitter.sequences()).containsExactly(3L, 4L, 5L);
+    }
+
+    @Test
+    @DisplayName("Буфер догонки должен хранить не больше replayBufferSize последних событий")
+    void subscribe_ShouldReplayOnlyBufferedEvents_WhenClientIsTooFarBehind() {
+        int published = REPLAY_BUFFER_SIZE * 10;
+        for (long id = 1; id <= published; id++) {
+            publish(UserChangeEvent.Type.UPDATED, id);
+        }
+        RecordingEmitter emitter = new RecordingEmitter();
+        userChangeFeed.subscribe(0L, emitter);
+
+        await().atMost(TIMEOUT).until(() -> emitter.events.size() == REPLAY_BUFFER_SIZE);
+        assertThat(emitter.sequences()).containsExactlyElementsOf(
+                LongStream.rangeClosed(published - REPLAY_BUFFER_SIZE + 1, published).boxed().toList());
+    }
+
+    @Test
+    @DisplayName("Отключившийся клиент должен удаляться из подписчиков")
+    void publish_ShouldRemoveSubscriber_WhenSendFails() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.failure = new IOException("Broken pipe");
+        userChangeFeed.subscribe(null, emitter);
+        assertThat(userChangeFeed.getSubscriberCount()).isEqualTo(1);
+
+        publish(UserChangeEvent.Type.CREATED, 1);
+
+        await().atMost(TIMEOUT).until(() -> userChangeFeed.getSubscriberCount() == 0);
+    }
+
+    @Test
+    @DisplayName("Тысячи подписчиков должны получить все события, а зависший клиент не должен задерживать писателя")
+    void publish_ShouldFanOutToManySubscribers_WithoutBlockingWriter() {
+        int subscriberCount = 2000;
+        int eventCount = 50;
+        CountDownLatch stalled = new CountDownLatch(1);
+        RecordingEmitter stalledEmitter = new RecordingEmitter();
+        stalledEmitter.gate = stalled;
+        userChangeFeed.subscribe(null, stalledEmitter);
+        List<RecordingEmitter> emitters = new ArrayList<>();
+        for (int i = 0; i < subscriberCount; i++) {
+            RecordingEmitter emitter = new RecordingEmitter();
+            emitters.add(emitter);
+            userChangeFeed.subscribe(null, emitter);
+        }
+        assertThat(meterRegistry.get("users.change-feed.subscribers").gauge().value())
+                .isEqualTo(subscriberCount + 1);
+
+        long started = System.nanoTime();
+        for (long id = 1; id <= eventCount; id++) {
+            publish(UserChangeEvent.Type.CREATED, id);
+        }
+        Duration publishTime = Duration.ofNanos(System.nanoTime() - started);
+
+        try {
+            // Публикация не ждёт доставки: писатель не должен почувствовать ни тысячи подписчиков, ни зависшего
+            assertThat(publishTime).isLessThan(Duration.ofSeconds(1));
+            await().atMost(TIMEOUT).until(() -> emitters.stream().allMatch(e -> e.events.size() == eventCount));
+            List<Long> expected = LongStream.rangeClosed(1, eventCount).boxed().toList();
+            emitters.forEach(emitter -> assertThat(emitter.sequences()).isEqualTo(expected));
+            assertThat(stalledEmitter.events).isEmpty();
+        } finally {
+            stalled.countDown();
+        }
+        await().atMost(TIMEOUT).until(() -> stalledEmitter.events.size() == eventCount);
+    }
+
+    @Test
+    @DisplayName("Отставшие подписчики не должны удерживать события сверх кольцевого буфера")
+    void publish_ShouldNotRetainEventsPerSubscriber_WhenSubscribersFallBehind() {
+        int subscriberCount = 1000;
+        int eventCount = REPLAY_BUFFER_SIZE * 100;
+        CountDownLatch stalled = new CountDownLatch(1);
+        List<RecordingEmitter> emitters = new ArrayList<>();
+        for (int i = 0; i < subscriberCount; i++) {
+            RecordingEmitter emitter = new RecordingEmitter();
+            emitter.gate = stalled;
+            emitters.add(emitter);
+            userChangeFeed.subscribe(null, emitter);
+        }
+
+        for (long id = 1; id <= eventCount; id++) {
+            publish(UserChangeEvent.Type.UPDATED, id);
+        }
+        stalled.countDown();
+
+        // Очереди на подписчика нет: всё, что удерживается, — это буфер на REPLAY_BUFFER_SIZE событий.
+        // Зависший подписчик успевает получить не больше события, на котором завис, и отключается
+        await().atMost(TIMEOUT).until(() -> userChangeFeed.getSubscriberCount() == 0);
+        assertThat(emitters).allSatisfy(emitter -> assertThat(emitter.events).hasSizeLessThanOrEqualTo(1));
+    }
+
+    private void publish(UserChangeEvent.Type type, long id) {
+        userChangeFeed.publish(type, UserReadDto.builder().id(id).username("user" + id).build());
+    }
+
+    // Вместо HTTP-ответа складывает отправленные события в список
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<UserChangeEvent> events = new CopyOnWriteArrayList<>();
+        private volatile CountDownLatch gate;
+        private volatile IOException failure;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failure != null) {
+                throw failure;
+            }
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            builder.build().stream()
+                    .map(DataWithMediaType::getData)
+                    .filter(UserChangeEvent.class::isInstance)
+                    .map(UserChangeEvent.class::cast)
+                    .forEach(events::add);
+        }
+
+        private List<Long> sequences() {
+            return events.stream().map(UserChangeEvent::getSequence).toList();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.demo.service;
+
+import com.example.demo.datasource.ReadYourWritesTracker;
+import com.example.demo.dto.UserChangeEvent;
+import com.example.demo.dto.UserCreateDto;
+import com.example.demo.dto.UserImportReport;
+import com.example.demo.dto.UserImportResult;
+import com.example.demo.dto.UserReadDto;
+import com.example.demo.entity.Role;
+import com.example.demo.entity.User;
+import com.example.demo.exception.ServiceUnavailableException;
+import com.example.demo.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncodingService passwordEncodingService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Cache secondLevelCache;
+
+    @Mock
+    private UserChangeFeed userChangeFeed;
+
+    @Mock
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    private UserImportService userImportService;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(secondLevelCache);
+        userImportService = new UserImportService(userRepository, passwordEncodingService, jdbcTemplate,
+                new TransactionTemplate(transactionManager), entityManagerFactory, new ObjectMapper(),
+                userChangeFeed, readYourWritesTracker);
+    }
+
+    @Test
+    @DisplayName("Метод должен вставлять новых user одной пачкой и возвращать ошибки по остальным строкам")
+    @SuppressWarnings("unchecked")
+    void importUsers_ShouldBatchInsertNewUsersAndReportFailures() {
+        List<UserCreateDto> users = List.of(
+                new UserCreateDto("newUser1", "password1", Role.USER),
+                new UserCreateDto("existingUser", "password2", Role.USER),
+                new UserCreateDto("newUser1", "password3", Role.USER),
+                new UserCreateDto("newUser2", null, Role.USER),
+                new UserCreateDto("newUser3", "password4", Role.ADMIN));
+
+        UserReadDto newUser1 = new UserReadDto(1L, "newUser1", 0L);
+        UserReadDto newUser3 = new UserReadDto(2L, "newUser3", 0L);
+
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of("existingUser"));
+        when(passwordEncodingService.encodeAsync(anyString()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture("{noop}" + invocation.getArgument(0)));
+        when(userRepository.findReadDtosByUsernameIn(List.of("newUser1", "newUser3")))
+                .thenReturn(List.of(newUser1, newUser3));
+
+        UserImportReport report = userImportService.importUsers(users.iterator());
+
+        assertThat(report.getCreated()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(3);
+        assertThat(report.getResults()).extracting(UserImportResult::getIndex).containsExactly(0, 1, 2, 3, 4);
+        assertThat(report.getResults()).extracting(UserImportResult::isCreated)
+                .containsExactly(true, false, false, false, true);
+        assertThat(report.getResults().get(1).getError()).isEqualTo("Username already exists: existingUser");
+
+        ArgumentCaptor<Collection<?>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batch.capture(), eq(2),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(batch.getValue()).hasSize(2);
+        verify(userRepository, times(1)).findExistingUsernames(anyCollection());
+        verify(secondLevelCache, times(1)).evictQueryRegions();
+        verify(secondLevelCache, never()).evictEntityData(User.class);
+        verify(userChangeFeed).publish(UserChangeEvent.Type.CREATED, newUser1);
+        verify(userChangeFeed).publish(UserChangeEvent.Type.CREATED, newUser3);
+        verify(readYourWritesTracker).recordWrite();
+    }
+
+    @Test
+    @DisplayName("Метод должен выполнять одну проверку существующих username на каждую пачку")
+    void importUsers_ShouldQueryExistingUsernamesOncePerChunk() {
+        List<UserCreateDto> users = IntStream.range(0, 1200)
+                .mapToObj(i -> new UserCreateDto("user" + i, "password", Role.USER))
+                .toList();
+
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+        when(passwordEncodingService.encodeAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture("{noop}password"));
+
+        UserImportReport report = userImportService.importUsers(users.iterator());
+
+        assertThat(report.getCreated()).isEqualTo(1200);
+        verify(userRepository, times(3)).findExistingUsernames(anyCollection());
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    @DisplayName("Переполнение очереди хэширования должно попадать в отчёт ошибкой строки, а не прерывать импорт")
+    void importUsers_ShouldReportRejectedRows_WhenEncodingQueueIsFull() {
+        List<UserCreateDto> users = List.of(
+                new UserCreateDto("newUser1", "password1", Role.USER),
+                new UserCreateDto("newUser2", "password2", Role.USER),
+                new UserCreateDto("newUser3", "password3", Role.USER));
+        ServiceUnavailableException rejected =
+                new ServiceUnavailableException("Password encoding queue is full, retry later");
+
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+        // newUser2 проходит после ожидания уже отправленных, newUser3 отклоняется и повторно
+        when(passwordEncodingService.encodeAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture("{noop}password1"))
+                .thenThrow(rejected)
+                .thenReturn(CompletableFuture.completedFuture("{noop}password2"))
+                .thenThrow(rejected, rejected);
+
+        UserImportReport report = userImportService.importUsers(users.iterator());
+
+        assertThat(report.getCreated()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getResults()).extracting(UserImportResult::isCreated).containsExactly(true, true, false);
+        assertThat(report.getResults().get(2).getError()).isEqualTo("Password encoding queue is full, retry later");
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyCollection(), eq(2),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    @DisplayName("Битая строка NDJSON должна попадать в отчёт ошибкой, а остальные строки — импортироваться")
+    void importNdjson_ShouldReportMalformedLineAndImportTheRest() {
+        String ndjson = """
+                {"username":"newUser1","password":"password1","role":"USER"}
+                {"username":"broken",
+
+                {"username":"newUser2","password":"password2","role":"ADMIN"}
+                """;
+
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+        when(passwordEncodingService.encodeAsync(anyString()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture("{noop}" + invocation.getArgument(0)));
+
+        UserImportReport report = userImportService.importNdjson(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(report.getCreated()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getResults()).extracting(UserImportResult::getIndex).containsExactly(0, 1, 2);
+        assertThat(report.getResults()).extracting(UserImportResult::isCreated).containsExactly(true, false, true);
+        assertThat(report.getResults().get(1).getError()).startsWith("Malformed JSON at line 2: ");
+        verify(readYourWritesTracker).recordWrite();
+    }
+}
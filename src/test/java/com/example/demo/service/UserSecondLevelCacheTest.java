@@ -0,0 +1,138 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.UserCreateDto;
+import com.example.demo.dto.UserEditDto;
+import com.example.demo.entity.Role;
+import com.example.demo.entity.User;
+import com.example.demo.exception.UserNotFoundException;
+import com.example.demo.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.unauthenticated;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserSecondLevelCacheTest {
+    private static final String USERNAME = "cachedUser";
+    private static final String RENAMED_USERNAME = "renamedCachedUser";
+    private static final String IMPORTED_USERNAME = "importedCachedUser";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Statistics statistics;
+    private Long id;
+
+    @BeforeEach
+    void setUp() {
+        id = userRepository.saveAndFlush(User.builder()
+                .username(USERNAME)
+                .password("{noop}password")
+                .role(Role.USER)
+                .createdAt(LocalDateTime.now())
+                .build()).getId();
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findById(id).ifPresent(userRepository::delete);
+        userRepository.findUserByUsername(IMPORTED_USERNAME).ifPresent(userRepository::delete);
+    }
+
+    @Test
+    @DisplayName("Повторное чтение user по id должно обходиться без SQL")
+    void findById_ShouldNotQueryDatabase_WhenUserIsCached() {
+        userService.findById(id);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        statistics.clear();
+
+        assertThat(userService.findById(id).getUsername()).isEqualTo(USERNAME);
+        assertThat(userService.findById(id).getVersion()).isZero();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Повторный поиск user по username должен обходиться без SQL")
+    void findUserByUsername_ShouldNotQueryDatabase_WhenQueryIsCached() {
+        userRepository.findUserByUsername(USERNAME);
+        statistics.clear();
+
+        assertThat(userRepository.findUserByUsername(USERNAME)).map(User::getId).contains(id);
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("После обновления кэш не должен отдавать старые данные ни по id, ни по username")
+    void update_ShouldInvalidateCachedUser() {
+        userService.findById(id);
+        userRepository.findUserByUsername(USERNAME);
+
+        userService.update(id, UserEditDto.builder().username(RENAMED_USERNAME).build()).join();
+
+        assertThat(userService.findById(id).getUsername()).isEqualTo(RENAMED_USERNAME);
+        assertThat(userService.findById(id).getVersion()).isEqualTo(1L);
+        assertThat(userRepository.findUserByUsername(USERNAME)).isEmpty();
+        assertThat(userRepository.findUserByUsername(RENAMED_USERNAME)).map(User::getId).contains(id);
+    }
+
+    @Test
+    @DisplayName("После удаления user не должен находиться через кэш")
+    void delete_ShouldInvalidateCachedUser() {
+        userService.findById(id);
+        userRepository.findUserByUsername(USERNAME);
+
+        userService.delete(id);
+
+        assertThatThrownBy(() -> userService.findById(id)).isInstanceOf(UserNotFoundException.class);
+        assertThat(userRepository.findUserByUsername(USERNAME)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Импортированный user должен входить, даже если до импорта вход под его username не удался")
+    void importUsers_ShouldInvalidateCachedMissingUsername() throws Exception {
+        mockMvc.perform(formLogin().user(IMPORTED_USERNAME).password("password"))
+                .andExpect(unauthenticated());
+
+        userImportService.importUsers(List.of(
+                new UserCreateDto(IMPORTED_USERNAME, "password", Role.USER)).iterator());
+
+        mockMvc.perform(formLogin().user(IMPORTED_USERNAME).password("password"))
+                .andExpect(authenticated().withUsername(IMPORTED_USERNAME));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.UserCreateDto;
+import com.example.demo.entity.Role;
+import com.example.demo.exception.UsernameAlreadyExistsException;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class UserServiceConcurrencyTest {
+    private static final int CONCURRENT_CREATES = 32;
+    private static final String USERNAME = "concurrentUser";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findUserByUsername(USERNAME).ifPresent(userRepository::delete);
+    }
+
+    @Test
+    @DisplayName("Из N одновременных созданий user с одинаковым username должно пройти ровно одно")
+    void save_ShouldCreateExactlyOneUser_WhenSameUsernameIsCreatedConcurrently() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_CREATES)) {
+            for (int i = 0; i < CONCURRENT_CREATES; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    CompletableFuture<?> created = userService.save(new UserCreateDto(USERNAME, "password", Role.USER));
+                    try {
+                        created.join();
+                        return true;
+                    } catch (CompletionException e) {
+                        assertThat(e.getCause()).isInstanceOf(UsernameAlreadyExistsException.class);
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+        }
+
+        long succeeded = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                succeeded++;
+            }
+        }
+        assertThat(succeeded).isEqualTo(1);
+        assertThat(userRepository.findUserByUsername(USERNAME)).isPresent();
+    }
+}
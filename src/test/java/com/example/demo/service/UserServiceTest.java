@@ -1,39 +1,56 @@
 package com.example.demo.service;
 
+import com.example.demo.config.CacheConfiguration;
+import com.example.demo.datasource.ReadYourWritesTracker;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.UserChangeEvent;
 import com.example.demo.dto.UserCreateDto;
 import com.example.demo.dto.UserEditDto;
 import com.example.demo.dto.UserReadDto;
 import com.example.demo.entity.Role;
 import com.example.demo.entity.User;
+import com.example.demo.exception.BadRequestException;
 import com.example.demo.exception.UserNotFoundException;
 import com.example.demo.exception.UsernameAlreadyExistsException;
+import com.example.demo.exception.VersionConflictException;
 import com.example.demo.mapper.UserMapper;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.JwtService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.doReturn;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -45,11 +62,29 @@ class UserServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordEncodingService passwordEncodingService;
 
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
+    @Spy
+    private AsyncTaskExecutor applicationTaskExecutor = new TaskExecutorAdapter(Runnable::run);
+
+    @Mock
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Mock
+    private UserChangeFeed userChangeFeed;
+
+    @Mock
+    private JwtService jwtService;
+
     @InjectMocks
     private UserService userService;
 
@@ -71,10 +106,10 @@ class UserServiceTest {
                 .username("testUser")
                 .build();
 
-        when(userRepository.findUserByUsername(userCreateDto.getUsername())).thenReturn(Optional.empty());
         when(userMapper.userCreateDtoToUser(userCreateDto)).thenReturn(user);
-        when(passwordEncoder.encode(userCreateDto.getPassword())).thenReturn("encodedTestPassword");
-        when(userRepository.save(user)).thenAnswer(invocation -> {
+        when(passwordEncodingService.encodeAsync(userCreateDto.getPassword()))
+                .thenReturn(CompletableFuture.completedFuture("encodedTestPassword"));
+        when(userRepository.saveAndFlush(user)).thenAnswer(invocation -> {
             User user1 = invocation.getArgument(0);
             user1.setId(1L);
             user1.setCreatedAt(LocalDateTime.now());
@@ -82,17 +117,18 @@ class UserServiceTest {
         });
         when(userMapper.userToUserReadDto(any(User.class))).thenReturn(userReadDto);
 
-        UserReadDto result = userService.save(userCreateDto);
+        UserReadDto result = userService.save(userCreateDto).join();
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
         assertEquals("testUser", result.getUsername());
 
-        verify(userRepository).findUserByUsername(userCreateDto.getUsername());
+        verify(userRepository, never()).findUserByUsername(any(String.class));
         verify(userMapper).userCreateDtoToUser(userCreateDto);
-        verify(passwordEncoder).encode(userCreateDto.getPassword());
-        verify(userRepository).save(any(User.class));
+        verify(passwordEncodingService).encodeAsync(userCreateDto.getPassword());
+        verify(userRepository).saveAndFlush(any(User.class));
         verify(userMapper).userToUserReadDto(any(User.class));
+        verify(userChangeFeed).publish(UserChangeEvent.Type.CREATED, userReadDto);
     }
 
     @Test
@@ -100,16 +136,21 @@ class UserServiceTest {
     void save_ShouldThrowException_WhenUsernameAlreadyExists() {
         UserCreateDto userCreateDto = UserCreateDto.builder()
                 .username("testUsername")
+                .password("testPassword")
                 .build();
         User user = User.builder().username("testUsername").build();
-        when(userRepository.findUserByUsername(userCreateDto.getUsername())).thenReturn(Optional.of(user));
+        when(userMapper.userCreateDtoToUser(userCreateDto)).thenReturn(user);
+        when(passwordEncodingService.encodeAsync(userCreateDto.getPassword()))
+                .thenReturn(CompletableFuture.completedFuture("encodedTestPassword"));
+        when(userRepository.saveAndFlush(user)).thenThrow(new DataIntegrityViolationException("duplicate",
+                new SQLException("Unique index or primary key violation", "23505")));
 
-        Exception exception = assertThrows(UsernameAlreadyExistsException.class,
-                                                                () -> userService.save(userCreateDto));
+        Exception exception = assertThrows(CompletionException.class, () -> userService.save(userCreateDto).join());
 
-        assertEquals("Username already exists: " + userCreateDto.getUsername(), exception.getMessage());
+        assertThat(exception.getCause()).isInstanceOf(UsernameAlreadyExistsException.class);
+        assertEquals("Username already exists: " + userCreateDto.getUsername(), exception.getCause().getMessage());
 
-        verify(userRepository).findUserByUsername(userCreateDto.getUsername());
+        verify(userRepository, never()).findUserByUsername(any(String.class));
     }
 
     @Test
@@ -118,17 +159,17 @@ class UserServiceTest {
         User user = User.builder().id(1L).username("testUsername").build();
         UserReadDto userReadDto = UserReadDto.builder().id(1L).username("testUsername").build();
 
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(userMapper.userToUserReadDto(user)).thenReturn(userReadDto);
 
-        UserReadDto result = userService.findById(user.getId());
+        UserReadDto result = userService.findById(1L);
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
         assertEquals("testUsername", result.getUsername());
 
-        verify(userRepository).findById(user.getId());
-        verify(userMapper).userToUserReadDto(user);
+        verify(userRepository).findById(1L);
+        verify(userRepository, never()).findReadDtoById(any(Long.class));
     }
 
     @Test
@@ -143,7 +184,6 @@ class UserServiceTest {
         assertEquals("User not found with id: 1", exception.getMessage());
 
         verify(userRepository).findById(testId);
-        verify(userMapper, never()).userToUserReadDto(any(User.class));
     }
 
     @Test
@@ -151,17 +191,12 @@ class UserServiceTest {
     void findAll_ShouldReturnUsers_WhenUsersExists() {
         Pageable pageable = PageRequest.of(0, 10);
 
-        User user1 = User.builder().id(1L).username("testUsername1").build();
-        User user2 = User.builder().id(2L).username("testUsername2").build();
-        List<User> users = List.of(user1, user2);
-        Page<User> userPage = new PageImpl<>(users, pageable, users.size());
-
         UserReadDto userReadDto1 = UserReadDto.builder().id(1L).username("testUsername1").build();
         UserReadDto userReadDto2 = UserReadDto.builder().id(2L).username("testUsername2").build();
+        List<UserReadDto> users = List.of(userReadDto1, userReadDto2);
 
-        when(userRepository.findAll(any(Pageable.class))).thenReturn(userPage);
-        doReturn(userReadDto1).when(userMapper).userToUserReadDto(user1);
-        doReturn(userReadDto2).when(userMapper).userToUserReadDto(user2);
+        when(userRepository.findAllReadDtos(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(users, pageable, users.size()));
 
         Page<UserReadDto> page = userService.findAll(pageable);
 
@@ -172,9 +207,9 @@ class UserServiceTest {
                 .hasSize(2)
                 .containsExactly(userReadDto1, userReadDto2);
 
-        verify(userRepository).findAll(any(Pageable.class));
-        verify(userMapper).userToUserReadDto(user1);
-        verify(userMapper).userToUserReadDto(user2);
+        verify(userRepository).findAllReadDtos(any(Pageable.class));
+        verify(userRepository, never()).findAll(any(Pageable.class));
+        verify(userMapper, never()).userToUserReadDto(any(User.class));
     }
 
     @Test
@@ -182,19 +217,75 @@ class UserServiceTest {
     void findAll_ShouldReturnEmptyPage_WhenNoUsersExist() {
         Pageable pageable = PageRequest.of(0, 10);
 
-        when(userRepository.findAll(pageable)).thenReturn(Page.empty());
+        when(userRepository.findAllReadDtos(pageable)).thenReturn(Page.empty());
 
         Page<UserReadDto> result = userService.findAll(pageable);
 
         assertThat(result.getTotalElements()).isZero();
         assertThat(result.getContent()).isEmpty();
 
-        verify(userRepository).findAll(pageable);
-        verify(userMapper, never()).userToUserReadDto(any(User.class));
+        verify(userRepository).findAllReadDtos(pageable);
+    }
+
+    @Test
+    @DisplayName("Метод должен возвращать страницу и курсор следующей страницы, когда записей больше size")
+    void findAllAfter_ShouldReturnNextCursor_WhenMoreUsersExist() {
+        UserReadDto userReadDto1 = UserReadDto.builder().id(1L).username("testUsername1").build();
+        UserReadDto userReadDto2 = UserReadDto.builder().id(2L).username("testUsername2").build();
+        UserReadDto userReadDto3 = UserReadDto.builder().id(3L).username("testUsername3").build();
+
+        when(userRepository.findReadDtosAfter(0L, PageRequest.ofSize(3)))
+                .thenReturn(List.of(userReadDto1, userReadDto2, userReadDto3));
+
+        CursorPage<UserReadDto> page = userService.findAllAfter(null, 2);
+
+        assertThat(page.getContent()).containsExactly(userReadDto1, userReadDto2);
+        assertThat(page.getNextCursor()).isNotNull();
+
+        when(userRepository.findReadDtosAfter(2L, PageRequest.ofSize(3))).thenReturn(List.of(userReadDto3));
+
+        CursorPage<UserReadDto> nextPage = userService.findAllAfter(page.getNextCursor(), 2);
+
+        assertThat(nextPage.getContent()).containsExactly(userReadDto3);
+        assertThat(nextPage.getNextCursor()).isNull();
+        verify(userRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("Метод должен выбрасывать исключение BadRequestException, когда курсор невалиден")
+    void findAllAfter_ShouldThrowException_WhenCursorIsInvalid() {
+        Exception exception = assertThrows(BadRequestException.class, () -> userService.findAllAfter("???", 20));
+
+        assertEquals("Invalid cursor: ???", exception.getMessage());
+        verify(userRepository, never()).findReadDtosAfter(any(Long.class), any(Pageable.class));
     }
 
     @Test
-    @DisplayName("Метод должен обновлять данные user по его id, когда такой user существует")
+    @DisplayName("Метод должен искать user по префиксу username без учёта регистра с заданным лимитом")
+    void searchByUsernamePrefix_ShouldQueryLowercaseRange() {
+        UserReadDto userReadDto = UserReadDto.builder().id(1L).username("Alice").build();
+
+        when(userRepository.findReadDtosByUsernameLowerRange("al", "al" + Character.MAX_VALUE, PageRequest.ofSize(5)))
+                .thenReturn(List.of(userReadDto));
+
+        List<UserReadDto> result = userService.searchByUsernamePrefix("AL", 5);
+
+        assertThat(result).containsExactly(userReadDto);
+    }
+
+    @Test
+    @DisplayName("Метод должен выбрасывать исключение BadRequestException, когда префикс пустой или лимит вне диапазона")
+    void searchByUsernamePrefix_ShouldThrowException_WhenArgumentsAreInvalid() {
+        assertThrows(BadRequestException.class, () -> userService.searchByUsernamePrefix(" ", 5));
+        assertThrows(BadRequestException.class, () -> userService.searchByUsernamePrefix("al", 0));
+        assertThrows(BadRequestException.class, () -> userService.searchByUsernamePrefix("al", 101));
+
+        verify(userRepository, never())
+                .findReadDtosByUsernameLowerRange(any(String.class), any(String.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Метод должен обновлять данные user одним UPDATE без загрузки сущности, когда такой user существует")
     void update_ShouldUpdateUser_WhenUserExists() {
         Long id = 1L;
         UserEditDto userEditDto = UserEditDto.builder()
@@ -202,73 +293,137 @@ class UserServiceTest {
                 .password("UpdatedTestPassword")
                 .role(Role.ADMIN)
                 .build();
-        User user = User.builder()
-                .id(id)
-                .username("testUsername")
-                .password("testPassword")
-                .role(Role.USER)
-                .createdAt(LocalDateTime.now())
-                .build();
+        UserReadDto current = UserReadDto.builder().id(id).username("testUsername").version(3L).build();
 
-        when(userRepository.findById(any(Long.class))).thenReturn(Optional.of(user));
-        doNothing().when(userMapper).updateUserFromUserEditDto(any(UserEditDto.class), any(User.class));
-        user.setUsername(userEditDto.getUsername());
-        user.setPassword(userEditDto.getPassword());
-        user.setRole(userEditDto.getRole());
-        when(passwordEncoder.encode(any(String.class))).thenReturn("encodedUpdatedTestPassword");
-        when(userRepository.save(any(User.class))).thenReturn(user);
-        when(userMapper.userToUserReadDto(any(User.class))).thenAnswer(invocation -> {
-            User tempUser = invocation.getArgument(0);
-            assertEquals("encodedUpdatedTestPassword", tempUser.getPassword());
-            assertEquals(Role.ADMIN, tempUser.getRole());
-            return UserReadDto.builder()
-                    .id(tempUser.getId())
-                    .username(tempUser.getUsername())
-                    .build();
-        });
+        when(userRepository.findReadDtoById(id)).thenReturn(Optional.of(current));
+        when(cacheManager.getCache(CacheConfiguration.USER_DETAILS_CACHE)).thenReturn(cache);
+        when(passwordEncodingService.encodeAsync("UpdatedTestPassword"))
+                .thenReturn(CompletableFuture.completedFuture("encodedUpdatedTestPassword"));
+        when(userRepository.updatePartially(id, 3L, "UpdatedTestUser", "encodedUpdatedTestPassword", Role.ADMIN))
+                .thenReturn(1);
 
-        UserReadDto result = userService.update(id, userEditDto);
+        UserReadDto result = userService.update(id, userEditDto).join();
 
-        assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(id);
-        assertThat(result.getUsername()).isEqualTo(userEditDto.getUsername());
+        assertThat(result.getUsername()).isEqualTo("UpdatedTestUser");
+        assertThat(result.getVersion()).isEqualTo(4L);
+
+        verify(userRepository, never()).findById(any(Long.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+        verify(cache).evict("testUsername");
+        verify(jwtService).revokeSubject("testUsername");
+        verify(userChangeFeed).publish(UserChangeEvent.Type.UPDATED, result);
+    }
 
-        verify(userRepository).findById(id);
-        verify(userMapper).updateUserFromUserEditDto(any(UserEditDto.class), any(User.class));
-        verify(passwordEncoder).encode(any(String.class));
-        verify(userRepository).save(any(User.class));
-        verify(userMapper).userToUserReadDto(any(User.class));
+    @Test
+    @DisplayName("Метод не должен хэшировать пароль и менять username, когда они не переданы")
+    void update_ShouldSkipPasswordEncoding_WhenPasswordIsAbsent() {
+        Long id = 1L;
+        UserEditDto userEditDto = UserEditDto.builder().role(Role.ADMIN).build();
+        UserReadDto current = UserReadDto.builder().id(id).username("testUsername").version(0L).build();
+
+        when(userRepository.findReadDtoById(id)).thenReturn(Optional.of(current));
+        when(cacheManager.getCache(CacheConfiguration.USER_DETAILS_CACHE)).thenReturn(cache);
+        when(userRepository.updatePartially(id, 0L, null, null, Role.ADMIN)).thenReturn(1);
+
+        UserReadDto result = userService.update(id, userEditDto).join();
+
+        assertThat(result.getUsername()).isEqualTo("testUsername");
+        verify(passwordEncodingService, never()).encodeAsync(any(String.class));
+        verify(cache).evict("testUsername");
+    }
+
+    @Test
+    @DisplayName("Метод должен выбрасывать исключение VersionConflictException, когда UPDATE не нашёл строку с прочитанной версией")
+    void update_ShouldThrowException_WhenUserWasModifiedConcurrently() {
+        Long id = 1L;
+        UserReadDto current = UserReadDto.builder().id(id).username("testUsername").version(0L).build();
+
+        when(userRepository.findReadDtoById(id)).thenReturn(Optional.of(current));
+        when(userRepository.updatePartially(id, 0L, null, null, Role.ADMIN)).thenReturn(0);
+
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> userService.update(id, UserEditDto.builder().role(Role.ADMIN).build()).join());
+
+        assertThat(exception.getCause()).isInstanceOf(VersionConflictException.class);
+        verify(cacheManager, never()).getCache(any(String.class));
     }
 
     @Test
     @DisplayName("Метод должен выбрасывать исключение UserNotFoundException, когда user с данным id не найден")
     void update_ShouldThrowException_WhenUserNotFound() {
         Long id = 1L;
-        when(userRepository.findById(id)).thenReturn(Optional.empty());
+        when(userRepository.findReadDtoById(id)).thenReturn(Optional.empty());
 
         Exception exception = assertThrows(
                 UserNotFoundException.class, () -> userService.update(id, new UserEditDto()));
 
         assertEquals("User not found with id: " + id, exception.getMessage());
 
-        verify(userRepository).findById(any(Long.class));
-        verify(userMapper, never()).updateUserFromUserEditDto(any(UserEditDto.class), any(User.class));
-        verify(passwordEncoder, never()).encode(any(String.class));
-        verify(userRepository, never()).save(any(User.class));
-        verify(userMapper, never()).userToUserReadDto(any(User.class));
+        verify(passwordEncodingService, never()).encodeAsync(any(String.class));
+        verify(userRepository, never())
+                .updatePartially(any(Long.class), any(Long.class), any(), any(), any());
     }
 
     @Test
-    @DisplayName("Метод должен удалять user, когда user с данным id существует")
+    @DisplayName("Метод должен выбрасывать исключение VersionConflictException, когда версия user не совпадает с If-Match")
+    void update_ShouldThrowException_WhenVersionDoesNotMatch() {
+        Long id = 1L;
+        UserReadDto current = UserReadDto.builder().id(id).username("testUsername").version(4L).build();
+        when(userRepository.findReadDtoById(id)).thenReturn(Optional.of(current));
+
+        Exception exception = assertThrows(
+                VersionConflictException.class, () -> userService.update(id, new UserEditDto(), 3L));
+
+        assertEquals("User with id 1 has version 4, expected 3", exception.getMessage());
+
+        verify(passwordEncodingService, never()).encodeAsync(any(String.class));
+        verify(userRepository, never())
+                .updatePartially(any(Long.class), any(Long.class), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Метод должен удалять user и вытеснять его из кэша, когда user с данным id существует")
     void delete_ShouldDeleteUser_WhenUserExists() {
         Long id = 1L;
+        User user = User.builder().id(id).username("testUsername").build();
 
-        when(userRepository.existsById(id)).thenReturn(true);
+        UserReadDto userReadDto = UserReadDto.builder().id(id).username("testUsername").build();
+
+        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        when(cacheManager.getCache(CacheConfiguration.USER_DETAILS_CACHE)).thenReturn(cache);
+        when(userMapper.userToUserReadDto(user)).thenReturn(userReadDto);
 
         userService.delete(id);
 
-        verify(userRepository).existsById(id);
-        verify(userRepository).deleteById(id);
+        verify(userRepository).findById(id);
+        verify(userRepository).delete(user);
+        verify(cache).evict("testUsername");
+        verify(jwtService).revokeSubject("testUsername");
+        verify(userChangeFeed).publish(UserChangeEvent.Type.DELETED, userReadDto);
+    }
+
+    @Test
+    @DisplayName("Внутри транзакции user должен вытесняться из кэша и отзываться только после коммита")
+    void delete_ShouldEvictAndRevokeAfterCommit_WhenTransactionIsActive() {
+        Long id = 1L;
+        User user = User.builder().id(id).username("testUsername").build();
+
+        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        when(cacheManager.getCache(CacheConfiguration.USER_DETAILS_CACHE)).thenReturn(cache);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.delete(id);
+
+            verify(cache, never()).evict(any());
+            verify(jwtService, never()).revokeSubject(any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(cache).evict("testUsername");
+            verify(jwtService).revokeSubject("testUsername");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     @Test
@@ -276,14 +431,14 @@ class UserServiceTest {
     void delete_ShouldThrowException_WhenUserNotFound() {
         Long id = 1L;
 
-        when(userRepository.existsById(id)).thenReturn(false);
+        when(userRepository.findById(id)).thenReturn(Optional.empty());
 
         Exception exception = assertThrows(UserNotFoundException.class, () -> userService.delete(id));
 
         assertEquals("User not found with id: " + id, exception.getMessage());
 
-        verify(userRepository).existsById(id);
-        verify(userRepository, never()).deleteById(id);
+        verify(userRepository).findById(id);
+        verify(userRepository, never()).delete(any(User.class));
     }
 
     @Test
@@ -295,6 +450,7 @@ class UserServiceTest {
                 .role(Role.USER)
                 .build();
 
+        when(cacheManager.getCache(CacheConfiguration.USER_DETAILS_CACHE)).thenReturn(cache);
         when(userRepository.findUserByUsername("testUsername")).thenReturn(Optional.of(user));
 
         UserDetails userDetails = userService.loadUserByUsername("testUsername");
@@ -305,11 +461,31 @@ class UserServiceTest {
         assertEquals(userDetails.getAuthorities().iterator().next().getAuthority(), Role.USER.name());
 
         verify(userRepository).findUserByUsername(any(String.class));
+        verify(cache).put(eq("testUsername"), any(UserDetails.class));
+    }
+
+    @Test
+    @DisplayName("Метод должен вернуть копию UserDetails из кэша без обращения к репозиторию")
+    void loadUserByUsername_ShouldReturnCachedCopy_WhenUserIsCached() {
+        UserDetails cached = new org.springframework.security.core.userdetails.User(
+                "testUsername", "testPassword", Collections.singleton(Role.USER));
+
+        when(cacheManager.getCache(CacheConfiguration.USER_DETAILS_CACHE)).thenReturn(cache);
+        when(cache.get("testUsername", UserDetails.class)).thenReturn(cached);
+
+        UserDetails userDetails = userService.loadUserByUsername("testUsername");
+
+        assertEquals("testUsername", userDetails.getUsername());
+        assertEquals("testPassword", userDetails.getPassword());
+        assertThat(userDetails).isNotSameAs(cached);
+
+        verify(userRepository, never()).findUserByUsername(any(String.class));
     }
 
     @Test
     @DisplayName("Метод должен выбросить исключение UsernameNotFoundException, когда user не сущесвует")
     void loadUserByUsername_ShouldThrowException_WhenUserNotFound() {
+        when(cacheManager.getCache(CacheConfiguration.USER_DETAILS_CACHE)).thenReturn(cache);
         when(userRepository.findUserByUsername("testUsername")).thenReturn(Optional.empty());
 
         Exception exception = assertThrows(
@@ -0,0 +1,61 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.UserEditDto;
+import com.example.demo.dto.UserReadDto;
+import com.example.demo.entity.Role;
+import com.example.demo.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserServiceUpdateStatementTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long id;
+
+    @BeforeEach
+    void setUp() {
+        id = jdbcTemplate.queryForObject("select id from users where username = 'charlie'", Long.class);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("PATCH должен выполнять выборку версии по PK и один UPDATE без загрузки сущности и хэширования")
+    void update_ShouldIssueSingleUpdate_WhenOnlyRoleIsPatched() {
+        UserReadDto before = userRepository.findReadDtoById(id).orElseThrow();
+        statistics.clear();
+
+        UserReadDto result = userService.update(id, UserEditDto.builder().role(Role.ADMIN).build()).join();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(result.getUsername()).isEqualTo("charlie");
+        assertThat(result.getVersion()).isEqualTo(before.getVersion() + 1);
+        assertThat(jdbcTemplate.queryForMap("select role, password, version from users where id = ?", id))
+                .containsEntry("ROLE", "ADMIN")
+                .containsEntry("PASSWORD", "{noop}charlie789")
+                .containsEntry("VERSION", result.getVersion());
+    }
+}